@@ -17,6 +17,9 @@
 package reactor.netty;
 
 import java.net.InetSocketAddress;
+import java.time.Duration;
+
+import reactor.core.publisher.Mono;
 
 /**
  * Hold contextual information for the underlying server
@@ -46,4 +49,26 @@ public interface DisposableServer extends DisposableChannel {
 	default int port() {
 		return address().getPort();
 	}
+
+	/**
+	 * Stop accepting connections, then let the connections finish the requests in
+	 * flight before closing them. Idle connections are closed right away, HTTP
+	 * responses in flight carry {@code Connection: close} and HTTP/2 connections are
+	 * sent a {@code GOAWAY} and closed once their active streams have completed. The
+	 * connections still opened after the given timeout are closed.
+	 * <p>The default implementation cannot drain connections: it disposes the server
+	 * right away, ignoring the timeout.
+	 *
+	 * @param timeout the maximum time to wait for the connections to close
+	 *
+	 * @return a {@link Mono} triggering the disposal when subscribed to and completing
+	 * once all the connections are closed
+	 * @since 0.8.6
+	 */
+	default Mono<Void> disposeGracefully(Duration timeout) {
+		return Mono.defer(() -> {
+			dispose();
+			return onDispose();
+		});
+	}
 }
\ No newline at end of file
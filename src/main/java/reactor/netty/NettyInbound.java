@@ -36,6 +36,19 @@ public interface NettyInbound {
 	 */
 	ByteBufFlux receive();
 
+	/**
+	 * A {@link ByteBufFlux} emitting the buffers received during one read cycle of
+	 * the underlying {@link Channel} as a single
+	 * {@link io.netty.buffer.CompositeByteBuf}, one signal per read instead of one per
+	 * buffer. Each emitted buffer is released after {@code onNext}, like with
+	 * {@link #receive()}. Inbounds that cannot batch fall back to {@link #receive()}.
+	 *
+	 * @return a new {@link ByteBufFlux}
+	 * @since 0.8.6
+	 */
+	default ByteBufFlux receiveBatched() {
+		return receive();
+	}
 
 	/**
 	 * a {@literal Object} inbound {@link Flux}
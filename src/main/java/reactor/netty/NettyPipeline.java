@@ -16,6 +16,7 @@
 
 package reactor.netty;
 
+import java.time.Duration;
 import java.util.Objects;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
@@ -69,6 +70,7 @@ public interface NettyPipeline {
 	String LoggingHandler     = LEFT + "loggingHandler";
 	String CompressionHandler = LEFT + "compressionHandler";
 	String WsCompressionHandler = LEFT + "wsCompressionHandler";
+	String H2DrainHandler     = LEFT + "h2DrainHandler";
 
 	/**
 	 * A builder for sending strategy, similar prefixed methods being mutually exclusive
@@ -104,6 +106,32 @@ public interface NettyPipeline {
 		 */
 		SendOptions flushOnEach(boolean withEventLoop);
 
+		/**
+		 * Make the underlying channel flush once the pending writes reach the given
+		 * number of bytes or of messages, or once the given delay has elapsed since the
+		 * first pending write, whichever comes first, and on a terminated
+		 * {@link Publisher}. This batches writes of fast streams while bounding the
+		 * latency of slow ones.
+		 *
+		 * @param maxBytes the number of pending bytes triggering a flush
+		 * @param maxMessages the number of pending messages triggering a flush
+		 * @param maxDelay the maximum time a pending write waits for a flush
+		 * @return this builder
+		 * @since 0.8.6
+		 */
+		SendOptions flushOnThreshold(int maxBytes, int maxMessages, Duration maxDelay);
+
+		/**
+		 * Gather consecutive buffers smaller than the given size emitted by the same
+		 * {@link Publisher} into a single buffer before writing them, reducing the number
+		 * of writes and of buffers handed to the socket for chatty streams. Only applies
+		 * when flushing on boundary.
+		 *
+		 * @param maxBytes the size of the gathering buffer, {@code 0} to disable
+		 * @return this builder
+		 * @since 0.8.6
+		 */
+		SendOptions coalesceWrites(int maxBytes);
 
 	}
 
@@ -129,6 +157,30 @@ public interface NettyPipeline {
 		}
 	}
 
+	/**
+	 * A user event fired on the connections of a server disposed gracefully. Protocol
+	 * handlers stop accepting new requests on the connection and close it once the
+	 * requests in flight have completed; a connection without a request in flight is
+	 * closed.
+	 *
+	 * @since 0.8.6
+	 */
+	final class DrainEvent {
+
+		/**
+		 * The shared drain event instance
+		 */
+		public static final DrainEvent INSTANCE = new DrainEvent();
+
+		DrainEvent() {
+		}
+
+		@Override
+		public String toString() {
+			return "DrainEvent";
+		}
+	}
+
 	/**
 	 * Create a new {@link ChannelInboundHandler} that will invoke
 	 * {@link BiConsumer#accept} on
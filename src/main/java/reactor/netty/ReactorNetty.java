@@ -676,6 +676,11 @@ public final class ReactorNetty {
 	 * Default selector thread count, fallback to -1 (no selector thread)
 	 */
 	public static final String IO_SELECT_COUNT = "reactor.netty.ioSelectCount";
+	/**
+	 * Default threshold (milliseconds) after which an event loop not making progress
+	 * is reported as blocked, fallback to -1 (no detection)
+	 */
+	public static final String IO_BLOCKING_THRESHOLD = "reactor.netty.ioBlockingThreshold";
 	/**
 	 * Default worker thread count for UDP, fallback to available processor
 	 * (but with a minimum value of 4)
@@ -702,6 +707,12 @@ public final class ReactorNetty {
 	 * connection in an unbounded fashion. Fallback 45 seconds
 	 */
 	public static final String POOL_ACQUIRE_TIMEOUT = "reactor.netty.pool.acquireTimeout";
+	/**
+	 * Default value whether the fixed and elastic connection providers will use the
+	 * lock-free reactor-netty pool instead of the Netty channel pools,
+	 * fallback to the Netty channel pools
+	 */
+	public static final String POOL_LOCK_FREE = "reactor.netty.pool.lockFree";
 
 
 	/**
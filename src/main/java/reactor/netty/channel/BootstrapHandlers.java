@@ -222,6 +222,72 @@ public abstract class BootstrapHandlers {
 	}
 
 
+	/**
+	 * Account the bytes buffered by the connections of the passed bootstrap in the
+	 * given {@link MemoryBudget}.
+	 *
+	 * @param b the bootstrap to configure
+	 * @param memoryBudget the {@link MemoryBudget} to share
+	 *
+	 * @return the mutated bootstrap
+	 * @since 0.8.6
+	 */
+	public static Bootstrap memoryBudget(Bootstrap b, MemoryBudget memoryBudget) {
+		Objects.requireNonNull(b, "bootstrap");
+		Objects.requireNonNull(memoryBudget, "memoryBudget");
+		return b.attr(MemoryBudget.BUDGET, memoryBudget);
+	}
+
+	/**
+	 * Account the bytes buffered by the accepted connections of the passed bootstrap in
+	 * the given {@link MemoryBudget}.
+	 *
+	 * @param b the bootstrap to configure
+	 * @param memoryBudget the {@link MemoryBudget} to share
+	 *
+	 * @return the mutated bootstrap
+	 * @since 0.8.6
+	 */
+	public static ServerBootstrap memoryBudget(ServerBootstrap b, MemoryBudget memoryBudget) {
+		Objects.requireNonNull(b, "bootstrap");
+		Objects.requireNonNull(memoryBudget, "memoryBudget");
+		return b.childAttr(MemoryBudget.BUDGET, memoryBudget);
+	}
+
+	/**
+	 * Stop reading from the connections of the passed bootstrap while the bytes waiting
+	 * for the inbound subscriber reach the high watermark, until they drop to the low
+	 * watermark.
+	 *
+	 * @param b the bootstrap to configure
+	 * @param lowWatermark the number of buffered bytes at which reading resumes
+	 * @param highWatermark the number of buffered bytes at which reading stops
+	 *
+	 * @return the mutated bootstrap
+	 * @since 0.8.6
+	 */
+	public static Bootstrap receiveWatermarks(Bootstrap b, int lowWatermark, int highWatermark) {
+		Objects.requireNonNull(b, "bootstrap");
+		return b.attr(FluxReceive.Watermarks.KEY, new FluxReceive.Watermarks(lowWatermark, highWatermark));
+	}
+
+	/**
+	 * Stop reading from the accepted connections of the passed bootstrap while the bytes
+	 * waiting for the inbound subscriber reach the high watermark, until they drop to the
+	 * low watermark.
+	 *
+	 * @param b the bootstrap to configure
+	 * @param lowWatermark the number of buffered bytes at which reading resumes
+	 * @param highWatermark the number of buffered bytes at which reading stops
+	 *
+	 * @return the mutated bootstrap
+	 * @since 0.8.6
+	 */
+	public static ServerBootstrap receiveWatermarks(ServerBootstrap b, int lowWatermark, int highWatermark) {
+		Objects.requireNonNull(b, "bootstrap");
+		return b.childAttr(FluxReceive.Watermarks.KEY, new FluxReceive.Watermarks(lowWatermark, highWatermark));
+	}
+
 	/**
 	 * Add a {@link ConnectionObserver} to the passed bootstrap.
 	 *
@@ -376,6 +442,28 @@ public abstract class BootstrapHandlers {
 		return b;
 	}
 
+	/**
+	 * Compute a key for the pipeline the given bootstrap handler would install. Unlike
+	 * {@link Object#hashCode()} two configurations built by the same lambda expression
+	 * produce the same key even when they capture different instances, so that
+	 * pipeline-equivalent bootstraps can be recognized.
+	 *
+	 * @param handler the bootstrap handler, as returned by {@code config().handler()}
+	 *
+	 * @return the pipeline key
+	 * @since 0.8.6
+	 */
+	public static int pipelineKey(@Nullable ChannelHandler handler) {
+		if (handler instanceof BootstrapPipelineHandler) {
+			int key = 1;
+			for (PipelineConfiguration pipelineConfiguration : (BootstrapPipelineHandler) handler) {
+				key = 31 * key + pipelineConfiguration.pipelineKey();
+			}
+			return key;
+		}
+		return handler != null ? handler.hashCode() : -1;
+	}
+
 	static ChannelHandler removeConfiguration(ChannelHandler handler, String name) {
 		if (handler instanceof BootstrapPipelineHandler) {
 			BootstrapPipelineHandler rph =
@@ -513,6 +601,18 @@ public abstract class BootstrapHandlers {
 		public int hashCode() {
 			return Objects.hash(consumer, name, deferredConsumer);
 		}
+
+		int pipelineKey() {
+			return 31 * (31 * name.hashCode() + functionKey(consumer)) + functionKey(deferredConsumer);
+		}
+
+		static int functionKey(@Nullable Object function) {
+			if (function == null) {
+				return 0;
+			}
+			// lambda instances have no value equality, their class identifies the code
+			return function.getClass().isSynthetic() ? function.getClass().hashCode() : function.hashCode();
+		}
 	}
 
 	static final class BootstrapPipelineHandler extends ArrayList<PipelineConfiguration>
@@ -227,6 +227,22 @@ public class ChannelOperations<INBOUND extends NettyInbound, OUTBOUND extends Ne
 		                                                          .alloc());
 	}
 
+	@Override
+	public ByteBufFlux receiveBatched() {
+		return ByteBufFlux.fromInbound(receiveBatchedObject(), connection.channel()
+		                                                                 .alloc());
+	}
+
+	/**
+	 * Return the inbound {@link Flux} backing {@link #receiveBatched()}, delivering the
+	 * buffers read during a read cycle gathered in a single buffer.
+	 *
+	 * @return the batched inbound {@link Flux}
+	 */
+	protected Flux<?> receiveBatchedObject() {
+		return inbound.batched();
+	}
+
 	@Override
 	public NettyOutbound sendObject(Publisher<?> dataStream) {
 		return then(FutureMono.disposableWriteAndFlush(connection.channel(), dataStream));
@@ -319,6 +335,13 @@ public class ChannelOperations<INBOUND extends NettyInbound, OUTBOUND extends Ne
 		inbound.onInboundNext(msg);
 	}
 
+	/**
+	 * React on the end of an inbound {@link Channel#read} cycle
+	 */
+	protected void onInboundReadComplete() {
+		inbound.onInboundReadComplete();
+	}
+
 	/**
 	 * React on inbound cancel (receive() subscriber cancelled)
 	 */
@@ -17,9 +17,13 @@
 package reactor.netty.channel;
 
 import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
@@ -45,6 +49,7 @@ import io.netty.channel.FileRegion;
 import io.netty.handler.codec.DecoderResult;
 import io.netty.handler.codec.DecoderResultProvider;
 import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.PromiseNotifier;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscription;
 import reactor.core.CoreSubscriber;
@@ -84,8 +89,18 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 	ChannelHandlerContext               ctx;
 	boolean                             flushOnEach;
 	boolean                             flushOnEachWithEventLoop;
+	boolean                             flushOnThreshold;
+	int                                 flushMaxBytes;
+	int                                 flushMaxMessages;
+	long                                flushMaxDelayNanos;
+	boolean                             flushScheduled;
+	int                                 pendingMessages;
 
 	long                                pendingBytes;
+	ConnectionBudget                    budget;
+	int                                 coalesceThreshold;
+	ByteBuf                             coalesceBuffer;
+	List<ChannelPromise>                coalescedPromises;
 
 	private Unsafe                      unsafe;
 
@@ -93,6 +108,7 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 	volatile boolean removed;
 	volatile int     wip;
 	volatile long    scheduledFlush;
+	volatile long    queuedBytes;
 
 	@SuppressWarnings("unchecked")
 	ChannelOperationsHandler(ChannelOperations.OnSetup opsFactory, ConnectionObserver listener) {
@@ -167,6 +183,15 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 		}
 	}
 
+	@Override
+	public void channelReadComplete(ChannelHandlerContext ctx) {
+		ChannelOperations<?, ?> ops = ChannelOperations.get(ctx.channel());
+		if (ops != null) {
+			ops.onInboundReadComplete();
+		}
+		ctx.fireChannelReadComplete();
+	}
+
 	@Override
 	public void channelWritabilityChanged(ChannelHandlerContext ctx) {
 		if (log.isDebugEnabled()) {
@@ -198,6 +223,7 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 	public void handlerAdded(ChannelHandlerContext ctx) {
 		this.ctx = ctx;
 		this.unsafe = ctx.channel().unsafe();
+		this.budget = ConnectionBudget.attach(ctx.channel());
 		inner.request(prefetch);
 	}
 
@@ -224,6 +250,15 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 			                                            .accept(this);
 			return;
 		}
+		if (evt instanceof NettyPipeline.DrainEvent) {
+			if (ChannelOperations.get(ctx.channel()) == null) {
+				if (log.isDebugEnabled()) {
+					log.debug(format(ctx.channel(), "Closing idle connection on server drain"));
+				}
+				ctx.close();
+			}
+			return;
+		}
 
 		ctx.fireUserEventTriggered(evt);
 	}
@@ -235,6 +270,17 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 			log.debug(format(ctx.channel(), "Writing object {}"), msg);
 		}
 
+		if (msg instanceof Callable && msg instanceof Publisher && isIdle()) {
+			// fastpath: a scalar publisher written on an idle channel needs neither the
+			// queue nor the publisher sender
+			writeScalar((Callable<?>) msg, promise);
+			return;
+		}
+
+		// the pending writes are deliberately not bounded: rejecting a write would
+		// fail a send the caller already issued, and marking the channel unwritable
+		// would also stop draining this queue. Queued publishers hold no bytes until
+		// drained, only the messages written directly are accounted in queuedBytes.
 		if (pendingWrites == null) {
 			this.pendingWrites = Queues.unbounded()
 			                           .get();
@@ -245,11 +291,88 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 			// Returned value is deliberately ignored
 			promise.setFailure(new IllegalStateException("Send Queue full?!"));
 		}
+		else {
+			long size = ConnectionBudget.size(msg);
+			if (size > 0L) {
+				QUEUED_BYTES.addAndGet(this, size);
+			}
+		}
+	}
+
+	/**
+	 * Return the number of queued bytes above which the current {@link Publisher} is
+	 * not requested ahead of its writes, the write buffer high water mark of the
+	 * channel.
+	 */
+	long maxQueuedBytes() {
+		return ctx.channel()
+		          .config()
+		          .getWriteBufferHighWaterMark();
+	}
+
+	/**
+	 * Return true if the current {@link Publisher} can be requested more elements:
+	 * the channel is writable and the pending writes waiting behind it are below the
+	 * channel high water mark. The queued bytes only pace the current publisher, they
+	 * do not bound the pending writes.
+	 */
+	boolean canRequestMore() {
+		return ctx.channel()
+		          .isWritable() && queuedBytes < maxQueuedBytes();
+	}
+
+	/**
+	 * Poll the message of a pending write, removing its bytes from the queued bytes.
+	 */
+	@Nullable
+	Object pollPendingMessage() {
+		Object v = pendingWrites.poll();
+		long size = v != null ? ConnectionBudget.size(v) : 0L;
+		if (size > 0L) {
+			QUEUED_BYTES.addAndGet(this, -size);
+		}
+		return v;
+	}
+
+	/**
+	 * Return true if nothing is queued nor being sent and the current thread owns the
+	 * channel, in which case a write can bypass the pending writes queue.
+	 */
+	boolean isIdle() {
+		return wip == 0 &&
+				!innerActive &&
+				!removed &&
+				(pendingWrites == null || pendingWrites.isEmpty()) &&
+				ctx.executor().inEventLoop() &&
+				ctx.channel().isWritable();
+	}
+
+	/**
+	 * Write the value of a scalar {@link Publisher} directly with the given promise.
+	 */
+	void writeScalar(Callable<?> supplier, ChannelPromise promise) {
+		Object v;
+		try {
+			v = supplier.call();
+		}
+		catch (Throwable e) {
+			promise.tryFailure(e);
+			return;
+		}
+
+		if (v == null) {
+			promise.trySuccess();
+			return;
+		}
+
+		// Returned value is deliberately ignored
+		doWrite(v, promise, null);
 	}
 
 	@Override
 	public NettyPipeline.SendOptions flushOnBoundary() {
 		flushOnEach = false;
+		flushOnThreshold = false;
 		return this;
 	}
 
@@ -257,6 +380,32 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 	public NettyPipeline.SendOptions flushOnEach(boolean withEventLoop) {
 		flushOnEach = true;
 		flushOnEachWithEventLoop = withEventLoop;
+		flushOnThreshold = false;
+		return this;
+	}
+
+	@Override
+	public NettyPipeline.SendOptions flushOnThreshold(int maxBytes, int maxMessages, Duration maxDelay) {
+		Objects.requireNonNull(maxDelay, "maxDelay");
+		if (maxBytes < 1 || maxMessages < 1 || maxDelay.isNegative() || maxDelay.isZero()) {
+			throw new IllegalArgumentException("Expected strictly positive thresholds, was: maxBytes=" +
+					maxBytes + ", maxMessages=" + maxMessages + ", maxDelay=" + maxDelay);
+		}
+		flushOnEach = false;
+		flushOnThreshold = true;
+		flushMaxBytes = maxBytes;
+		flushMaxMessages = maxMessages;
+		flushMaxDelayNanos = maxDelay.toNanos();
+		return this;
+	}
+
+	@Override
+	public NettyPipeline.SendOptions coalesceWrites(int maxBytes) {
+		if (maxBytes < 0) {
+			throw new IllegalArgumentException("maxBytes must be positive or zero, was: " + maxBytes);
+		}
+		writeCoalesced();
+		coalesceThreshold = maxBytes;
 		return this;
 	}
 
@@ -268,14 +417,32 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 	}
 
 	ChannelFuture doWrite(Object msg, ChannelPromise promise, @Nullable PublisherSender inner) {
+		if ((coalesceThreshold > 0 || flushOnThreshold) && inner != null && !flushOnEach) {
+			// the gathering buffer and the flush thresholds are only touched from the
+			// event loop
+			if (!ctx.executor().inEventLoop()) {
+				ctx.executor()
+				   .execute(() -> doWrite(msg, promise, inner));
+				return promise;
+			}
+			if (coalesceThreshold > 0 && msg instanceof ByteBuf &&
+					((ByteBuf) msg).readableBytes() < coalesceThreshold) {
+				return coalesce((ByteBuf) msg, promise);
+			}
+		}
+		if (coalesceBuffer != null) {
+			writeCoalesced();
+		}
+
 		if (flushOnEach || //fastpath
-				(inner == null && pendingWrites.isEmpty()) || //last drained element
+				(inner == null && (pendingWrites == null || pendingWrites.isEmpty())) || //last drained element
 				!ctx.channel()
 				    .isWritable() //force flush if write buffer full
 				) {
 			pendingBytes = 0L;
+			pendingMessages = 0;
 
-			ChannelFuture future = ctx.write(msg, promise);
+			ChannelFuture future = write(msg, promise);
 			if (flushOnEachWithEventLoop && ctx.channel().isWritable()) {
 				scheduleFlush();
 			}
@@ -300,15 +467,132 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 			if (log.isTraceEnabled()) {
 				log.trace(format(ctx.channel(), "Pending write size = {}"), pendingBytes);
 			}
-			ChannelFuture future = ctx.write(msg, promise);
+			ChannelFuture future = write(msg, promise);
 			if (!ctx.channel().isWritable()) {
 				pendingBytes = 0L;
+				pendingMessages = 0;
 				ctx.flush();
 			}
+			else if (flushOnThreshold) {
+				onPendingWrite();
+			}
 			return future;
 		}
 	}
 
+	/**
+	 * Write the message, accounting its bytes in the {@link ConnectionBudget} if any
+	 * until the write completes.
+	 */
+	ChannelFuture write(Object msg, ChannelPromise promise) {
+		ConnectionBudget budget = this.budget;
+		if (budget == null) {
+			return ctx.write(msg, promise);
+		}
+		long size = ConnectionBudget.size(msg);
+		budget.acquire(size);
+		return ctx.write(msg, promise.unvoid())
+		          .addListener(f -> budget.release(size));
+	}
+
+	ChannelFuture coalesce(ByteBuf msg, ChannelPromise promise) {
+		int size = msg.readableBytes();
+		if (coalesceBuffer != null && coalesceBuffer.readableBytes() + size > coalesceThreshold) {
+			writeCoalesced();
+		}
+		if (coalesceBuffer == null) {
+			coalesceBuffer = ctx.alloc()
+			                    .buffer(coalesceThreshold);
+			if (coalescedPromises == null) {
+				coalescedPromises = new ArrayList<>();
+			}
+		}
+		try {
+			coalesceBuffer.writeBytes(msg);
+		}
+		finally {
+			ReferenceCountUtil.release(msg);
+		}
+		coalescedPromises.add(promise);
+		pendingBytes = Operators.addCap(pendingBytes, size);
+
+		if (!ctx.channel()
+		        .isWritable()) {
+			pendingBytes = 0L;
+			pendingMessages = 0;
+			writeCoalesced();
+			ctx.flush();
+		}
+		else if (flushOnThreshold) {
+			onPendingWrite();
+		}
+		return promise;
+	}
+
+	/**
+	 * Flush if the pending writes reached a threshold, otherwise make sure a flush is
+	 * scheduled within the maximum delay.
+	 */
+	void onPendingWrite() {
+		if (++pendingMessages >= flushMaxMessages || pendingBytes >= flushMaxBytes) {
+			flushPending();
+		}
+		else if (!flushScheduled) {
+			flushScheduled = true;
+			ctx.executor()
+			   .schedule(this::flushDelayed, flushMaxDelayNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	void flushDelayed() {
+		flushScheduled = false;
+		if (pendingMessages > 0 && !removed) {
+			if (log.isTraceEnabled()) {
+				log.trace(format(ctx.channel(), "Flushing {} pending writes after delay"), pendingMessages);
+			}
+			flushPending();
+		}
+	}
+
+	void flushPending() {
+		pendingBytes = 0L;
+		pendingMessages = 0;
+		writeCoalesced();
+		ctx.flush();
+	}
+
+	/**
+	 * Write the gathered buffers, if any, completing their promises with the single
+	 * resulting write.
+	 */
+	@SuppressWarnings("FutureReturnValueIgnored")
+	void writeCoalesced() {
+		ByteBuf buffer = coalesceBuffer;
+		if (buffer == null) {
+			return;
+		}
+		coalesceBuffer = null;
+		ChannelPromise[] promises = coalescedPromises.toArray(new ChannelPromise[0]);
+		coalescedPromises.clear();
+		// Returned value is deliberately ignored
+		write(buffer, ctx.newPromise()).addListener(new PromiseNotifier<Void, ChannelFuture>(promises));
+	}
+
+	/**
+	 * Write the gathered buffers, if any, and flush, from the event loop.
+	 */
+	void flushCoalesced() {
+		if (ctx.executor()
+		       .inEventLoop()) {
+			writeCoalesced();
+			ctx.flush();
+		}
+		else {
+			ctx.executor()
+			   .execute(this::flushCoalesced);
+		}
+	}
+
 	void scheduleFlush() {
 		if (SCHEDULED_FLUSH.getAndIncrement(this) == 0) {
 			ctx.channel()
@@ -329,6 +613,14 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 	}
 
 	void discard() {
+		if (coalesceBuffer != null) {
+			ReferenceCountUtil.release(coalesceBuffer);
+			coalesceBuffer = null;
+			for (ChannelPromise promise : coalescedPromises) {
+				promise.tryFailure(new AbortedException("Connection has been closed"));
+			}
+			coalescedPromises.clear();
+		}
 		for (; ; ) {
 			if (pendingWrites == null || pendingWrites.isEmpty()) {
 				return;
@@ -344,7 +636,7 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 				ctx.fireExceptionCaught(e);
 				return;
 			}
-			v = pendingWrites.poll();
+			v = pollPendingMessage();
 			if (v == ChannelOperations.TERMINATED_OPS) {
 				continue;
 			}
@@ -398,7 +690,7 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 					continue;
 				}
 
-				v = pendingWrites.poll();
+				v = pollPendingMessage();
 
 				if (!innerActive && v == PublisherSender.PENDING_WRITES) {
 					boolean last = pendingWrites.isEmpty();
@@ -424,35 +716,8 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 						Publisher<?> p = (Publisher<?>) v;
 	
 						if (p instanceof Callable) {
-							@SuppressWarnings("unchecked") Callable<?> supplier =
-									(Callable<?>) p;
-	
-							Object vr;
-	
-							try {
-								vr = supplier.call();
-							}
-							catch (Throwable e) {
-								// Returned value is deliberately ignored
-								promise.setFailure(e);
-								continue;
-							}
-	
-							if (vr == null) {
-								// Returned value is deliberately ignored
-								promise.setSuccess();
-								continue;
-							}
-	
-							if (inner.unbounded) {
-								// Returned value is deliberately ignored
-								doWrite(vr, promise, null);
-							}
-							else {
-								innerActive = true;
-								inner.promise = promise;
-								inner.onSubscribe(Operators.scalarSubscription(inner, vr));
-							}
+							// a single value needs no demand, write it directly
+							writeScalar((Callable<?>) p, promise);
 						}
 						else {
 							innerActive = true;
@@ -547,13 +812,14 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 					if (parent.ctx.channel()
 					              .isActive()) {
 						parent.pendingBytes = 0L;
+						parent.pendingMessages = 0;
 						if (lastThreadInEventLoop) {
-							parent.ctx.flush();
+							parent.flushCoalesced();
 						}
 						else {
 							parent.ctx.channel()
 							          .eventLoop()
-							          .execute(() -> parent.ctx.flush());
+							          .execute(parent::flushCoalesced);
 						}
 					}
 					else {
@@ -606,12 +872,12 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 				if (parent.ctx.channel()
 				              .isActive()) {
 					if (lastThreadInEventLoop) {
-						parent.ctx.flush();
+						parent.flushCoalesced();
 					}
 					else {
 						parent.ctx.channel()
 						          .eventLoop()
-						          .execute(() -> parent.ctx.flush());
+						          .execute(parent::flushCoalesced);
 					}
 				}
 				else {
@@ -695,8 +961,7 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 			// Returned value is deliberately ignored
 			parent.doWrite(t, promise, this);
 
-			if (parent.ctx.channel()
-			              .isWritable()) {
+			if (parent.canRequestMore()) {
 				request(1L);
 			}
 			else {
@@ -938,6 +1203,8 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 			AtomicIntegerFieldUpdater.newUpdater(ChannelOperationsHandler.class, "wip");
 	static final AtomicLongFieldUpdater<ChannelOperationsHandler> SCHEDULED_FLUSH =
 			AtomicLongFieldUpdater.newUpdater(ChannelOperationsHandler.class, "scheduledFlush");
+	static final AtomicLongFieldUpdater<ChannelOperationsHandler> QUEUED_BYTES =
+			AtomicLongFieldUpdater.newUpdater(ChannelOperationsHandler.class, "queuedBytes");
 	static final Logger                                              log =
 			Loggers.getLogger(ChannelOperationsHandler.class);
 
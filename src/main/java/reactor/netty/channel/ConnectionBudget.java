@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.channel;
+
+import javax.annotation.Nullable;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.Channel;
+import io.netty.channel.FileRegion;
+import io.netty.util.AttributeKey;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import static reactor.netty.ReactorNetty.format;
+
+/**
+ * The share of a {@link MemoryBudget} used by a single connection. It is only updated
+ * from the event loop of the connection, updates from other threads are moved there.
+ * The bytes still accounted when the connection closes are returned to the
+ * {@link MemoryBudget}.
+ */
+final class ConnectionBudget {
+
+	static final AttributeKey<ConnectionBudget> KEY = AttributeKey.newInstance("connectionBudget");
+
+	/**
+	 * Attach a {@link ConnectionBudget} to the channel if a {@link MemoryBudget} has been
+	 * configured for it.
+	 *
+	 * @param channel the connection channel
+	 *
+	 * @return the attached {@link ConnectionBudget} or null
+	 */
+	@Nullable
+	static ConnectionBudget attach(Channel channel) {
+		MemoryBudget global = channel.attr(MemoryBudget.BUDGET)
+		                             .get();
+		if (global == null) {
+			return null;
+		}
+		ConnectionBudget budget = new ConnectionBudget(global, channel);
+		channel.attr(KEY)
+		       .set(budget);
+		channel.closeFuture()
+		       .addListener(f -> budget.close());
+		return budget;
+	}
+
+	/**
+	 * Return the number of bytes accounted for a message.
+	 *
+	 * @param msg the message
+	 *
+	 * @return the number of readable bytes of the message, {@code 0} if unknown or for
+	 * a {@link FileRegion} which holds no heap
+	 */
+	static long size(Object msg) {
+		if (msg instanceof ByteBuf) {
+			return ((ByteBuf) msg).readableBytes();
+		}
+		if (msg instanceof ByteBufHolder) {
+			return ((ByteBufHolder) msg).content()
+			                            .readableBytes();
+		}
+		return 0L;
+	}
+
+	final MemoryBudget global;
+	final Channel      channel;
+
+	volatile long used;
+
+	boolean paused;
+	boolean autoReadOnResume;
+	boolean closed;
+
+	ConnectionBudget(MemoryBudget global, Channel channel) {
+		this.global = global;
+		this.channel = channel;
+	}
+
+	void acquire(long bytes) {
+		if (bytes == 0L) {
+			return;
+		}
+		if (!channel.eventLoop()
+		            .inEventLoop()) {
+			channel.eventLoop()
+			       .execute(() -> acquire(bytes));
+			return;
+		}
+		if (closed) {
+			return;
+		}
+		used += bytes;
+		global.acquire(bytes);
+		if (!paused && exceeded()) {
+			pause();
+		}
+	}
+
+	void release(long bytes) {
+		if (bytes == 0L) {
+			return;
+		}
+		if (!channel.eventLoop()
+		            .inEventLoop()) {
+			channel.eventLoop()
+			       .execute(() -> release(bytes));
+			return;
+		}
+		if (closed) {
+			return;
+		}
+		used -= bytes;
+		global.release(bytes);
+		if (paused && !exceeded()) {
+			resume();
+		}
+	}
+
+	/**
+	 * Return true if reads may be requested on the channel, otherwise remember to
+	 * restore the given auto-read mode once the budget allows reading again.
+	 *
+	 * @param autoRead the auto-read mode requested by the caller
+	 *
+	 * @return true if reads may be requested on the channel
+	 */
+	boolean canRead(boolean autoRead) {
+		if (paused) {
+			autoReadOnResume |= autoRead;
+			return false;
+		}
+		return true;
+	}
+
+	boolean exceeded() {
+		return used > global.maxBytesPerConnection || global.exceeded();
+	}
+
+	void pause() {
+		if (log.isDebugEnabled()) {
+			log.debug(format(channel, "Pausing reads, {} bytes buffered out of {}"), used, global);
+		}
+		paused = true;
+		autoReadOnResume = channel.config()
+		                          .isAutoRead();
+		channel.config()
+		       .setAutoRead(false);
+		if (global.exceeded()) {
+			global.waiting.offer(this);
+			// the global budget may have been released before this connection waits
+			if (!global.exceeded()) {
+				resumeLater();
+			}
+		}
+	}
+
+	void resume() {
+		if (log.isDebugEnabled()) {
+			log.debug(format(channel, "Resuming reads, {} bytes buffered out of {}"), used, global);
+		}
+		paused = false;
+		ChannelOperations<?, ?> ops = ChannelOperations.get(channel);
+		if (ops != null && !ops.inbound.belowWatermark(autoReadOnResume)) {
+			return;
+		}
+		if (autoReadOnResume) {
+			channel.config()
+			       .setAutoRead(true);
+		}
+		channel.read();
+	}
+
+	void resumeLater() {
+		channel.eventLoop()
+		       .execute(() -> {
+		           if (!paused || closed) {
+		               return;
+		           }
+		           if (!exceeded()) {
+		               resume();
+		           }
+		           else if (global.exceeded()) {
+		               global.waiting.offer(this);
+		           }
+		       });
+	}
+
+	void close() {
+		if (!closed) {
+			closed = true;
+			global.waiting.remove(this);
+			global.release(used);
+			used = 0L;
+		}
+	}
+
+	static final Logger log = Loggers.getLogger(ConnectionBudget.class);
+}
@@ -23,8 +23,10 @@ import javax.annotation.Nullable;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufHolder;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.EventLoop;
+import io.netty.util.AttributeKey;
 import io.netty.util.ReferenceCountUtil;
 import org.reactivestreams.Subscription;
 import reactor.core.CoreSubscriber;
@@ -46,11 +48,18 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 	final Channel           channel;
 	final ChannelOperations<?, ?> parent;
 	final EventLoop         eventLoop;
+	final ConnectionBudget  budget;
+	final int               lowWatermark;
+	final int               highWatermark;
 
 	CoreSubscriber<? super Object> receiver;
 	boolean                        receiverFastpath;
 	long                           receiverDemand;
 	Queue<Object>                  receiverQueue;
+	long                           receiverQueueBytes;
+	boolean                        watermarkPaused;
+	boolean                        autoReadOnResume;
+	boolean                        batched;
 
 	volatile boolean   inboundDone;
 	Throwable inboundError;
@@ -65,6 +74,10 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 		this.parent = parent;
 		this.channel = parent.channel();
 		this.eventLoop = channel.eventLoop();
+		this.budget = channel.attr(ConnectionBudget.KEY).get();
+		Watermarks watermarks = channel.attr(Watermarks.KEY).get();
+		this.lowWatermark = watermarks != null ? watermarks.low : -1;
+		this.highWatermark = watermarks != null ? watermarks.high : -1;
 		CANCEL.lazySet(this, () -> {
 			if (eventLoop.inEventLoop()) {
 				unsubscribeReceiver();
@@ -117,11 +130,30 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 
 	@Override
 	public void subscribe(CoreSubscriber<? super Object> s) {
+		subscribe(s, false);
+	}
+
+	/**
+	 * Return a {@link Flux} whose receiver gets the buffers read during a read cycle
+	 * gathered in a single buffer.
+	 *
+	 * @return the batched inbound {@link Flux}
+	 */
+	final Flux<Object> batched() {
+		return new Flux<Object>() {
+			@Override
+			public void subscribe(CoreSubscriber<? super Object> s) {
+				FluxReceive.this.subscribe(s, true);
+			}
+		};
+	}
+
+	final void subscribe(CoreSubscriber<? super Object> s, boolean batched) {
 		if (eventLoop.inEventLoop()){
-			startReceiver(s);
+			startReceiver(s, batched);
 		}
 		else {
-			eventLoop.execute(() -> startReceiver(s));
+			eventLoop.execute(() -> startReceiver(s, batched));
 		}
 	}
 
@@ -144,6 +176,7 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 				if (log.isDebugEnabled()) {
 					log.debug(format(channel, "Dropping frame {}, {} in buffer"), o, getPending());
 				}
+				release(o);
 				ReferenceCountUtil.release(o);
 			}
 		}
@@ -201,6 +234,10 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 					break;
 				}
 
+				release(v);
+				if (batched) {
+					v = gather(q, v);
+				}
 				try {
 					a.onNext(v);
 				}
@@ -223,9 +260,11 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 			}
 
 			if (r == Long.MAX_VALUE) {
-				channel.config()
-				       .setAutoRead(true);
-				channel.read();
+				if (canRead(true)) {
+					channel.config()
+					       .setAutoRead(true);
+					channel.read();
+				}
 				missed = WIP.addAndGet(this, -missed);
 				if(missed == 0){
 					break;
@@ -233,7 +272,7 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 				receiverFastpath = true;
 			}
 
-			if ((receiverDemand -= e) > 0L || e > 0L) {
+			if (((receiverDemand -= e) > 0L || e > 0L) && canRead(false)) {
 				channel.read();
 			}
 
@@ -244,7 +283,7 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 		}
 	}
 
-	final void startReceiver(CoreSubscriber<? super Object> s) {
+	final void startReceiver(CoreSubscriber<? super Object> s, boolean batched) {
 		if (receiver == null) {
 			if (log.isDebugEnabled()) {
 				log.debug(format(channel, "Subscribing inbound receiver [pending: {}, cancelled:{}, " +
@@ -263,6 +302,8 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 				return;
 			}
 
+			// set on the event loop, before any delivery to the receiver
+			this.batched = batched;
 			receiver = s;
 
 			s.onSubscribe(this);
@@ -283,7 +324,7 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 			return;
 		}
 
-		if (receiverFastpath && receiver != null) {
+		if (receiverFastpath && receiver != null && !batched) {
 			try {
 				if (log.isDebugEnabled()){
 					if(msg instanceof ByteBuf) {
@@ -318,10 +359,58 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 				}
 			}
 			q.offer(msg);
+			acquire(msg);
+			// batched receivers are drained once per read cycle
+			if (!batched) {
+				drainReceiver();
+			}
+		}
+	}
+
+	final void onInboundReadComplete() {
+		if (batched && receiverQueue != null && !receiverQueue.isEmpty()) {
 			drainReceiver();
 		}
 	}
 
+	/**
+	 * Gather the given message and the buffers following it in the queue into a
+	 * single {@link CompositeByteBuf}, taking ownership of them.
+	 *
+	 * @param q the receiver queue
+	 * @param first the message already polled from the queue
+	 *
+	 * @return the message to emit
+	 */
+	final Object gather(Queue<Object> q, Object first) {
+		if (!isBuffer(first) || !isBuffer(q.peek())) {
+			return first;
+		}
+		CompositeByteBuf batch = channel.alloc()
+		                                .compositeBuffer(Integer.MAX_VALUE);
+		batch.addComponent(true, content(first));
+		while (isBuffer(q.peek())) {
+			Object v = q.poll();
+			release(v);
+			batch.addComponent(true, content(v));
+		}
+		return batch;
+	}
+
+	static boolean isBuffer(@Nullable Object msg) {
+		return msg instanceof ByteBuf || msg instanceof ByteBufHolder;
+	}
+
+	static ByteBuf content(Object msg) {
+		if (msg instanceof ByteBuf) {
+			return (ByteBuf) msg;
+		}
+		ByteBuf content = ((ByteBufHolder) msg).content()
+		                                       .retain();
+		ReferenceCountUtil.release(msg);
+		return content;
+	}
+
 	final void onInboundComplete() {
 		if (inboundDone) {
 			return;
@@ -361,6 +450,12 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 
 	final void terminateReceiver(@Nullable Queue<?> q, CoreSubscriber<?> a) {
 		if (q != null) {
+			if (budget != null || highWatermark >= 0) {
+				Object o;
+				while ((o = q.poll()) != null) {
+					release(o);
+				}
+			}
 			q.clear();
 		}
 		Throwable ex = inboundError;
@@ -373,6 +468,75 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 		}
 	}
 
+	final void acquire(Object msg) {
+		if (budget == null && highWatermark < 0) {
+			return;
+		}
+		long size = ConnectionBudget.size(msg);
+		if (budget != null) {
+			budget.acquire(size);
+		}
+		if (highWatermark >= 0) {
+			receiverQueueBytes += size;
+			if (!watermarkPaused && receiverQueueBytes >= highWatermark) {
+				if (log.isDebugEnabled()) {
+					log.debug(format(channel, "Pausing reads, {} bytes in buffer"), receiverQueueBytes);
+				}
+				watermarkPaused = true;
+				autoReadOnResume = channel.config()
+				                          .isAutoRead();
+				channel.config()
+				       .setAutoRead(false);
+			}
+		}
+	}
+
+	final void release(Object msg) {
+		if (budget == null && highWatermark < 0) {
+			return;
+		}
+		long size = ConnectionBudget.size(msg);
+		if (budget != null) {
+			budget.release(size);
+		}
+		if (highWatermark >= 0) {
+			receiverQueueBytes -= size;
+			if (watermarkPaused && receiverQueueBytes <= lowWatermark) {
+				if (log.isDebugEnabled()) {
+					log.debug(format(channel, "Resuming reads, {} bytes in buffer"), receiverQueueBytes);
+				}
+				watermarkPaused = false;
+				if (budget == null || budget.canRead(autoReadOnResume)) {
+					if (autoReadOnResume) {
+						channel.config()
+						       .setAutoRead(true);
+					}
+					channel.read();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return true if reads may be requested on the channel, otherwise remember to
+	 * restore the given auto-read mode once the buffered bytes allow reading again.
+	 *
+	 * @param autoRead the auto-read mode requested by the caller
+	 *
+	 * @return true if reads may be requested on the channel
+	 */
+	final boolean canRead(boolean autoRead) {
+		return belowWatermark(autoRead) && (budget == null || budget.canRead(autoRead));
+	}
+
+	final boolean belowWatermark(boolean autoRead) {
+		if (watermarkPaused) {
+			autoReadOnResume |= autoRead;
+			return false;
+		}
+		return true;
+	}
+
 	final void unsubscribeReceiver() {
 		receiverDemand = 0L;
 		receiver = null;
@@ -388,6 +552,27 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 				+ ",inboundError=" + inboundError + '}';
 	}
 
+	/**
+	 * The number of buffered bytes above which the connection stops reading and below
+	 * which it reads again.
+	 */
+	static final class Watermarks {
+
+		static final AttributeKey<Watermarks> KEY = AttributeKey.newInstance("receiveWatermarks");
+
+		final int low;
+		final int high;
+
+		Watermarks(int low, int high) {
+			if (low < 0 || high < low || high == 0) {
+				throw new IllegalArgumentException("Expected 0 <= low <= high and high > 0, was: low=" +
+						low + ", high=" + high);
+			}
+			this.low = low;
+			this.high = high;
+		}
+	}
+
 	@SuppressWarnings("rawtypes")
 	static final AtomicReferenceFieldUpdater<FluxReceive, Disposable> CANCEL =
 			AtomicReferenceFieldUpdater.newUpdater(FluxReceive.class,
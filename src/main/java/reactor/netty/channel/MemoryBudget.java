@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.channel;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.netty.util.AttributeKey;
+import reactor.netty.Connection;
+
+/**
+ * A budget of bytes buffered by the connections sharing it, both inbound messages
+ * waiting for their subscriber and outbound messages waiting for the socket. A
+ * connection stops reading from its socket while it exceeds its own share or while the
+ * connections sharing the budget exceed the global limit, and resumes once enough
+ * buffered bytes have been consumed or written.
+ *
+ * @since 0.8.6
+ */
+public final class MemoryBudget {
+
+	/**
+	 * Create a {@link MemoryBudget} to be shared by several servers or clients.
+	 *
+	 * @param maxBytes the maximum number of bytes buffered by all the connections
+	 * @param maxBytesPerConnection the maximum number of bytes buffered by a single
+	 * connection
+	 *
+	 * @return a new {@link MemoryBudget}
+	 */
+	public static MemoryBudget create(long maxBytes, long maxBytesPerConnection) {
+		if (maxBytes < 1) {
+			throw new IllegalArgumentException("maxBytes must be strictly positive, was: " + maxBytes);
+		}
+		if (maxBytesPerConnection < 1) {
+			throw new IllegalArgumentException("maxBytesPerConnection must be strictly positive, was: " +
+					maxBytesPerConnection);
+		}
+		return new MemoryBudget(maxBytes, maxBytesPerConnection);
+	}
+
+	static final AttributeKey<MemoryBudget> BUDGET = AttributeKey.newInstance("memoryBudget");
+
+	final long                     maxBytes;
+	final long                     maxBytesPerConnection;
+	final AtomicLong               used    = new AtomicLong();
+	final Queue<ConnectionBudget> waiting = new ConcurrentLinkedQueue<>();
+
+	MemoryBudget(long maxBytes, long maxBytesPerConnection) {
+		this.maxBytes = maxBytes;
+		this.maxBytesPerConnection = maxBytesPerConnection;
+	}
+
+	/**
+	 * Return the maximum number of bytes buffered by all the connections.
+	 *
+	 * @return the maximum number of bytes buffered by all the connections
+	 */
+	public long maxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Return the maximum number of bytes buffered by a single connection.
+	 *
+	 * @return the maximum number of bytes buffered by a single connection
+	 */
+	public long maxBytesPerConnection() {
+		return maxBytesPerConnection;
+	}
+
+	/**
+	 * Return the number of bytes currently buffered by all the connections.
+	 *
+	 * @return the number of bytes currently buffered by all the connections
+	 */
+	public long usedBytes() {
+		return used.get();
+	}
+
+	/**
+	 * Return the number of bytes currently buffered by the given connection.
+	 *
+	 * @param connection the connection
+	 *
+	 * @return the number of bytes currently buffered by the connection, {@code 0} if
+	 * it is not accounted by a {@link MemoryBudget}
+	 */
+	public long usedBytes(Connection connection) {
+		ConnectionBudget budget = connection.channel()
+		                                    .attr(ConnectionBudget.KEY)
+		                                    .get();
+		return budget != null ? budget.used : 0L;
+	}
+
+	boolean exceeded() {
+		return used.get() > maxBytes;
+	}
+
+	void acquire(long bytes) {
+		used.addAndGet(bytes);
+	}
+
+	void release(long bytes) {
+		if (used.addAndGet(-bytes) <= maxBytes) {
+			ConnectionBudget budget;
+			while ((budget = waiting.poll()) != null) {
+				budget.resumeLater();
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "MemoryBudget {" +
+				"maxBytes=" + maxBytes +
+				", maxBytesPerConnection=" + maxBytesPerConnection +
+				", usedBytes=" + used.get() +
+				'}';
+	}
+}
@@ -815,6 +815,21 @@ public abstract class HttpClient {
 		return new HttpClientTcpConfig(this, tcpMapper);
 	}
 
+	/**
+	 * Open up to the given number of connections to the configured base url and park
+	 * them in the {@link ConnectionProvider} pool, so that first requests do not pay for
+	 * the connection and TLS handshake. Connections already allocated count towards the
+	 * given number. Non pooled clients complete immediately.
+	 *
+	 * @param connections the number of connections the pool should hold
+	 *
+	 * @return a {@link Mono} completing when the connections are ready to be acquired
+	 * @since 0.8.6
+	 */
+	public final Mono<Void> warmup(int connections) {
+		return tcpConfiguration().warmup(connections);
+	}
+
 	/**
 	 * Apply a wire logger configuration using {@link HttpClient} category
 	 * and {@code DEBUG} logger level
@@ -128,6 +128,34 @@ final class HttpClientConnect extends HttpClient {
 
 		@Override
 		public Mono<? extends Connection> connect(Bootstrap b) {
+			HttpClientConfiguration conf = HttpClientConfiguration.getAndClean(b);
+			SslProvider defaultSsl = prepare(b, conf);
+
+			if (conf.deferredConf != null) {
+				return Mono.fromCallable(() -> new HttpClientConfiguration(conf))
+				           .transform(conf.deferredConf)
+				           .flatMap(c -> new MonoHttpConnect(b, c, defaultClient, defaultSsl));
+			}
+
+			return new MonoHttpConnect(b, conf, defaultClient, defaultSsl);
+		}
+
+		@Override
+		public Mono<Void> warmup(Bootstrap b, int connections) {
+			HttpClientConfiguration conf = HttpClientConfiguration.getAndClean(b);
+			SslProvider defaultSsl = prepare(b, conf);
+
+			if (conf.deferredConf != null) {
+				return Mono.fromCallable(() -> new HttpClientConfiguration(conf))
+				           .transform(conf.deferredConf)
+				           .flatMap(c -> new MonoHttpConnect(b, c, defaultClient, defaultSsl).warmup(connections));
+			}
+
+			return new MonoHttpConnect(b, conf, defaultClient, defaultSsl).warmup(connections);
+		}
+
+		@Nullable
+		SslProvider prepare(Bootstrap b, HttpClientConfiguration conf) {
 			SslProvider ssl = SslProvider.findSslSupport(b);
 
 			if (b.config()
@@ -155,7 +183,6 @@ final class HttpClientConnect extends HttpClient {
 				}
 			}
 
-			HttpClientConfiguration conf = HttpClientConfiguration.getAndClean(b);
 			BootstrapHandlers.channelOperationFactory(b,
 					(ch, c, msg) -> new HttpClientOperations(ch, c, conf.cookieEncoder, conf.cookieDecoder));
 
@@ -172,16 +199,7 @@ final class HttpClientConnect extends HttpClient {
 				}
 				SslProvider.setBootstrap(b, ssl);
 			}
-
-			SslProvider defaultSsl = ssl;
-
-			if (conf.deferredConf != null) {
-				return Mono.fromCallable(() -> new HttpClientConfiguration(conf))
-				           .transform(conf.deferredConf)
-				           .flatMap(c -> new MonoHttpConnect(b, c, defaultClient, defaultSsl));
-			}
-
-			return new MonoHttpConnect(b, conf, defaultClient, defaultSsl);
+			return ssl;
 		}
 
 		@Override
@@ -222,6 +240,38 @@ final class HttpClientConnect extends HttpClient {
 			this.proxyProvider = ProxyProvider.findProxySupport(bootstrap);
 		}
 
+		/**
+		 * Open connections for the initial URI the same way {@link #subscribe} would,
+		 * without sending any request.
+		 */
+		Mono<Void> warmup(int connections) {
+			return Mono.defer(() -> {
+				Bootstrap b = bootstrap.clone();
+
+				HttpClientHandler handler = new HttpClientHandler(configuration, b.config()
+				                                                                  .remoteAddress(), sslProvider, proxyProvider);
+
+				b.remoteAddress(handler);
+
+				if ((configuration.protocols & HttpClientConfiguration.h11) == HttpClientConfiguration.h11) {
+					BootstrapHandlers.updateConfiguration(b,
+							NettyPipeline.HttpInitializer,
+							new Http1Initializer(handler, configuration.protocols));
+				}
+
+				if (handler.activeURI.isSecure()) {
+					if (sslProvider == null) {
+						b = SslProvider.setBootstrap(b, HttpClientSecure.DEFAULT_HTTP_SSL_PROVIDER);
+					}
+				}
+				else if (sslProvider != null) {
+					b = SslProvider.removeSslSupport(b);
+				}
+
+				return tcpClient.warmup(b, connections);
+			});
+		}
+
 		@Override
 		public void subscribe(CoreSubscriber<? super Connection> actual) {
 			final Bootstrap b = bootstrap.clone();
@@ -206,6 +206,11 @@ final class HttpClientDoOnError extends HttpClientOperator {
 			}
 		}
 
+		@Override
+		public Mono<Void> warmup(Bootstrap b, int connections) {
+			return sourceTcp.warmup(b, connections);
+		}
+
 		@Override
 		public Bootstrap configure() {
 			Bootstrap bootstrap = sourceTcp.configure();
@@ -67,6 +67,11 @@ final class HttpClientOnConnectMap extends HttpClientOperator {
 			return connector.apply(sourceTcp.connect(b), b);
 		}
 
+		@Override
+		public Mono<Void> warmup(Bootstrap b, int connections) {
+			return sourceTcp.warmup(b, connections);
+		}
+
 		@Nullable
 		@Override
 		public ProxyProvider proxyProvider() {
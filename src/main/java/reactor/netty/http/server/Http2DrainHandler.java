@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.http.server;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.Http2ConnectionAdapter;
+import io.netty.handler.codec.http2.Http2Error;
+import io.netty.handler.codec.http2.Http2MultiplexCodec;
+import io.netty.handler.codec.http2.Http2Stream;
+import reactor.netty.NettyPipeline;
+
+import static reactor.netty.ReactorNetty.format;
+
+/**
+ * Drain an HTTP/2 connection on {@link NettyPipeline.DrainEvent}: a {@code GOAWAY} is
+ * sent through the {@link Http2MultiplexCodec} so that the client stops opening
+ * streams, and the connection is closed once its active streams have completed.
+ * Connections that did not negotiate HTTP/2 forward the event.
+ */
+@ChannelHandler.Sharable
+final class Http2DrainHandler extends ChannelInboundHandlerAdapter {
+
+	static final Http2DrainHandler INSTANCE = new Http2DrainHandler();
+
+	@Override
+	public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+		if (evt instanceof NettyPipeline.DrainEvent) {
+			ChannelHandlerContext codecCtx = ctx.pipeline()
+			                                    .context(Http2MultiplexCodec.class);
+			if (codecCtx != null) {
+				drain(ctx, codecCtx);
+				return;
+			}
+		}
+		ctx.fireUserEventTriggered(evt);
+	}
+
+	static void drain(ChannelHandlerContext ctx, ChannelHandlerContext codecCtx) {
+		Http2MultiplexCodec codec = (Http2MultiplexCodec) codecCtx.handler();
+		Http2Connection connection = codec.connection();
+		if (!connection.goAwaySent()) {
+			if (HttpServerOperations.log.isDebugEnabled()) {
+				HttpServerOperations.log.debug(format(ctx.channel(), "Sending GOAWAY on " +
+						"server drain, {} active streams"), connection.numActiveStreams());
+			}
+			// Returned value is deliberately ignored
+			codec.goAway(codecCtx, connection.remote().lastStreamCreated(),
+					Http2Error.NO_ERROR.code(), Unpooled.EMPTY_BUFFER, codecCtx.newPromise());
+			codecCtx.flush();
+		}
+
+		if (connection.numActiveStreams() == 0) {
+			ctx.close();
+			return;
+		}
+		connection.addListener(new Http2ConnectionAdapter() {
+			@Override
+			public void onStreamClosed(Http2Stream stream) {
+				if (connection.numActiveStreams() == 0) {
+					ctx.channel()
+					   .eventLoop()
+					   .execute(ctx::close);
+				}
+			}
+		});
+	}
+}
@@ -32,6 +32,7 @@ import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.util.SelfSignedCertificate;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import reactor.netty.Connection;
 import reactor.netty.ConnectionObserver;
 import reactor.netty.DisposableServer;
@@ -323,6 +324,30 @@ public abstract class HttpServer {
 		return tcpConfiguration(tcpServer -> tcpServer.bootstrap(b -> HttpServerConfiguration.protocols(b, supportedProtocols)));
 	}
 
+	/**
+	 * Run the handlers on the given {@link Scheduler} instead of the event loop, so that
+	 * blocking calls do not stall the I/O of the other connections sharing the event
+	 * loop. Reads and writes remain on the event loop of the connection. At most
+	 * {@code maxPending} requests wait for a {@link Scheduler} worker; the requests
+	 * beyond that limit, or rejected by the {@link Scheduler}, are answered with
+	 * {@code 503 Service Unavailable} without invoking the handler.
+	 *
+	 * @param scheduler the {@link Scheduler} running the handlers, for instance a
+	 * {@link Scheduler} backed by a bounded executor
+	 * @param maxPending the maximum number of requests waiting for a worker
+	 *
+	 * @return a new {@link HttpServer}
+	 * @since 0.8.6
+	 */
+	public final HttpServer offload(Scheduler scheduler, int maxPending) {
+		Objects.requireNonNull(scheduler, "scheduler");
+		if (maxPending < 1) {
+			throw new IllegalArgumentException("maxPending must be strictly positive, was: " + maxPending);
+		}
+		HttpServerOffload offload = new HttpServerOffload(scheduler, maxPending);
+		return tcpConfiguration(tcp -> tcp.attr(HttpServerOffload.OFFLOAD, offload));
+	}
+
 	/**
 	 * The port to which this server should bind.
 	 *
@@ -334,6 +359,21 @@ public abstract class HttpServer {
 		return tcpConfiguration(tcpServer -> tcpServer.port(port));
 	}
 
+	/**
+	 * Bind the given number of listening sockets with {@code SO_REUSEPORT} when the
+	 * native epoll transport is used.
+	 *
+	 * @param acceptors the number of listening sockets, {@code 0} for one per worker
+	 * event loop
+	 *
+	 * @return a new {@link HttpServer}
+	 * @see TcpServer#reusePort(int)
+	 * @since 0.8.6
+	 */
+	public final HttpServer reusePort(int acceptors) {
+		return tcpConfiguration(tcpServer -> tcpServer.reusePort(acceptors));
+	}
+
 	/**
 	 * Apply an SSL configuration customization via the passed builder. The builder
 	 * will produce the {@link SslContext} to be passed to with a default value of
@@ -16,6 +16,7 @@
 
 package reactor.netty.http.server;
 
+import java.time.Duration;
 import java.util.Objects;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
@@ -301,6 +302,13 @@ final class HttpServerBind extends HttpServer
 			             .disposeWhen(server.address());
 		}
 
+		@Override
+		public Mono<Void> disposeGracefully(Duration timeout) {
+			return server.disposeGracefully(timeout)
+			             .then(Mono.fromRunnable(() -> HttpResources.get()
+			                                                        .disposeWhen(server.address())));
+		}
+
 		@Override
 		public Channel channel() {
 			return server.channel();
@@ -422,6 +430,7 @@ final class HttpServerBind extends HttpServer
 					new CleartextHttp2ServerUpgradeHandler(httpServerCodec, new HttpServerUpgradeHandler(httpServerCodec, upgrader), upgrader.multiplexCodec);
 
 			p.addLast(NettyPipeline.HttpCodec, h2cUpgradeHandler);
+			p.addLast(NettyPipeline.H2DrainHandler, Http2DrainHandler.INSTANCE);
 
 			if (ACCESS_LOG) {
 				p.addLast(NettyPipeline.AccessLogHandler, new AccessLogHandler());
@@ -528,7 +537,8 @@ final class HttpServerBind extends HttpServer
 						"reactor.netty.http.server.h2.cleartext"));
 			}
 
-			p.addLast(NettyPipeline.HttpCodec, http2MultiplexCodecBuilder.build());
+			p.addLast(NettyPipeline.HttpCodec, http2MultiplexCodecBuilder.build())
+			 .addLast(NettyPipeline.H2DrainHandler, Http2DrainHandler.INSTANCE);
 
 			channel.read();
 		}
@@ -576,7 +586,8 @@ final class HttpServerBind extends HttpServer
 		@Override
 		public void accept(ConnectionObserver observer, Channel channel) {
 			channel.pipeline()
-			       .addLast(new Http1OrH2Codec(this, observer));
+			       .addLast(new Http1OrH2Codec(this, observer))
+			       .addLast(NettyPipeline.H2DrainHandler, Http2DrainHandler.INSTANCE);
 		}
 	}
 
@@ -681,7 +692,8 @@ final class HttpServerBind extends HttpServer
 				http2MultiplexCodecBuilder.frameLogger(new Http2FrameLogger(LogLevel.DEBUG, "reactor.netty.http.server.h2.secured"));
 			}
 
-			p.addLast(NettyPipeline.HttpCodec, http2MultiplexCodecBuilder.build());
+			p.addLast(NettyPipeline.HttpCodec, http2MultiplexCodecBuilder.build())
+			 .addLast(NettyPipeline.H2DrainHandler, Http2DrainHandler.INSTANCE);
 		}
 	}
 
@@ -60,6 +60,12 @@ final class HttpServerHandle extends HttpServerOperator implements ConnectionObs
 					log.debug(format(connection.channel(), "Handler is being applied: {}"), handler);
 				}
 				HttpServerOperations ops = (HttpServerOperations) connection;
+				HttpServerOffload offload = HttpServerOffload.find(connection.channel());
+				if (offload != null) {
+					offload.apply(handler, ops)
+					       .subscribe(ops.disposeSubscriber());
+					return;
+				}
 				Mono.fromDirect(handler.apply(ops, ops))
 				    .subscribe(ops.disposeSubscriber());
 			}
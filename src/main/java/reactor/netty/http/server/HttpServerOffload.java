@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.http.server;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.util.AttributeKey;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.annotation.Nullable;
+
+import static reactor.netty.ReactorNetty.format;
+
+/**
+ * Run the server handler on a {@link Scheduler} instead of the event loop, at most
+ * {@code maxPending} handlers waiting for a worker. Requests beyond that limit, or
+ * rejected by the {@link Scheduler}, are answered with {@code 503 Service
+ * Unavailable} without invoking the handler. Reads and writes remain on the event loop
+ * of the connection.
+ */
+final class HttpServerOffload {
+
+	static final AttributeKey<HttpServerOffload> OFFLOAD =
+			AttributeKey.newInstance("httpServerOffload");
+
+	final Scheduler     scheduler;
+	final int           maxPending;
+	final AtomicInteger pending = new AtomicInteger();
+
+	HttpServerOffload(Scheduler scheduler, int maxPending) {
+		this.scheduler = scheduler;
+		this.maxPending = maxPending;
+	}
+
+	/**
+	 * Return the offload configured on the given connection, or on its parent for
+	 * HTTP/2 streams.
+	 *
+	 * @param channel the connection channel
+	 *
+	 * @return the configured offload or null
+	 */
+	@Nullable
+	static HttpServerOffload find(Channel channel) {
+		HttpServerOffload offload = channel.attr(OFFLOAD).get();
+		if (offload == null && channel.parent() != null) {
+			offload = channel.parent().attr(OFFLOAD).get();
+		}
+		return offload;
+	}
+
+	Mono<Void> apply(BiFunction<? super HttpServerRequest, ? super HttpServerResponse, ? extends Publisher<Void>> handler,
+			HttpServerOperations ops) {
+		if (pending.incrementAndGet() > maxPending) {
+			pending.decrementAndGet();
+			return reject(ops);
+		}
+		Dequeue dequeue = new Dequeue();
+		return Mono.defer(() -> {
+		               dequeue.run();
+		               return Mono.fromDirect(handler.apply(ops, ops));
+		           })
+		           .subscribeOn(scheduler)
+		           .onErrorResume(e -> e instanceof RejectedExecutionException && dequeue.tryDequeue(),
+		                   e -> reject(ops))
+		           // a request cancelled while queued, e.g. on disconnect, never starts
+		           .doFinally(s -> dequeue.tryDequeue());
+	}
+
+	Mono<Void> reject(HttpServerOperations ops) {
+		if (HttpServerOperations.log.isDebugEnabled()) {
+			HttpServerOperations.log.debug(format(ops.channel(), "Offload queue full, " +
+					"rejecting request with 503"));
+		}
+		return ops.status(HttpResponseStatus.SERVICE_UNAVAILABLE)
+		          .send();
+	}
+
+	@Override
+	public String toString() {
+		return "HttpServerOffload {" +
+				"scheduler=" + scheduler +
+				", maxPending=" + maxPending +
+				", pending=" + pending.get() +
+				'}';
+	}
+
+	/**
+	 * Leave the pending queue exactly once, when the handler starts on a worker, when
+	 * the {@link Scheduler} rejects it or when the request terminates or is cancelled
+	 * before starting.
+	 */
+	final class Dequeue extends AtomicBoolean implements Runnable {
+
+		@Override
+		public void run() {
+			tryDequeue();
+		}
+
+		boolean tryDequeue() {
+			if (compareAndSet(false, true)) {
+				pending.decrementAndGet();
+				return true;
+			}
+			return false;
+		}
+	}
+}
@@ -272,6 +272,15 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 
 	@Override
 	public Flux<?> receiveObject() {
+		return continueIfExpected(super.receiveObject());
+	}
+
+	@Override
+	protected Flux<?> receiveBatchedObject() {
+		return continueIfExpected(super.receiveBatchedObject());
+	}
+
+	final Flux<?> continueIfExpected(Flux<?> inbound) {
 		// Handle the 'Expect: 100-continue' header if necessary.
 		// TODO: Respond with 413 Request Entity Too Large
 		//   and discard the traffic or close the connection.
@@ -285,10 +294,10 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 						return channel().newSucceededFuture();
 					})
 
-			                 .thenMany(super.receiveObject());
+			                 .thenMany(inbound);
 		}
 		else {
-			return super.receiveObject();
+			return inbound;
 		}
 	}
 
@@ -42,6 +42,7 @@ import io.netty.util.ReferenceCountUtil;
 import reactor.core.Exceptions;
 import reactor.netty.Connection;
 import reactor.netty.ConnectionObserver;
+import reactor.netty.NettyPipeline;
 import reactor.util.concurrent.Queues;
 
 import static io.netty.handler.codec.http.HttpUtil.*;
@@ -191,6 +192,23 @@ final class HttpTrafficHandler extends ChannelDuplexHandler
 		ctx.fireChannelRead(msg);
 	}
 
+	@Override
+	public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+		if (evt instanceof NettyPipeline.DrainEvent) {
+			// the response in flight, if any, carries "Connection: close"
+			persistentConnection = false;
+			if (pendingResponses == 0) {
+				if (HttpServerOperations.log.isDebugEnabled()) {
+					HttpServerOperations.log.debug(format(ctx.channel(), "Closing idle " +
+							"keep-alive connection on server drain"));
+				}
+				ctx.close();
+			}
+			return;
+		}
+		super.userEventTriggered(ctx, evt);
+	}
+
 	void doPipeline(ChannelHandlerContext ctx, Object msg) {
 		if (pipelined == null) {
 			pipelined = Queues.unbounded()
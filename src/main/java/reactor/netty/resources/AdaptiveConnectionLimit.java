@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.resources;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * An additive increase, multiplicative decrease concurrency limit driven by the
+ * time connections are leased for.
+ * <p>A lease taking longer than {@link #TOLERANCE} times the minimum lease time
+ * observed over the last {@link #WINDOW} samples, or a failure to connect, shrinks
+ * the limit by {@link #BACKOFF_RATIO}. A lease released while the pool was saturated
+ * grows the limit by {@code 1 / limit}, that is by one connection once every
+ * connection has been leased again. The minimum lease time is re-estimated at the end
+ * of every window so that a durably slower remote does not pin the limit down.
+ */
+final class AdaptiveConnectionLimit {
+
+	static final double BACKOFF_RATIO = 0.9;
+	static final double TOLERANCE     = 2.0d;
+	static final int    WINDOW        = 1024;
+
+	final int minLimit;
+	final int maxLimit;
+
+	volatile long limitBits;
+	static final AtomicLongFieldUpdater<AdaptiveConnectionLimit> LIMIT =
+			AtomicLongFieldUpdater.newUpdater(AdaptiveConnectionLimit.class, "limitBits");
+
+	volatile long minRttNanos = Long.MAX_VALUE;
+	static final AtomicLongFieldUpdater<AdaptiveConnectionLimit> MIN_RTT =
+			AtomicLongFieldUpdater.newUpdater(AdaptiveConnectionLimit.class, "minRttNanos");
+
+	volatile long windowMinRttNanos = Long.MAX_VALUE;
+	static final AtomicLongFieldUpdater<AdaptiveConnectionLimit> WINDOW_MIN_RTT =
+			AtomicLongFieldUpdater.newUpdater(AdaptiveConnectionLimit.class, "windowMinRttNanos");
+
+	volatile int samples;
+	static final AtomicIntegerFieldUpdater<AdaptiveConnectionLimit> SAMPLES =
+			AtomicIntegerFieldUpdater.newUpdater(AdaptiveConnectionLimit.class, "samples");
+
+	AdaptiveConnectionLimit(int minLimit, int initialLimit, int maxLimit) {
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.limitBits = Double.doubleToRawLongBits(initialLimit);
+	}
+
+	/**
+	 * @return the current number of connections that can be leased at once
+	 */
+	int limit() {
+		return (int) Double.longBitsToDouble(limitBits);
+	}
+
+	/**
+	 * Account for a released lease.
+	 *
+	 * @param rttNanos the time the connection has been leased for
+	 * @param inFlight the number of leased connections, including this one
+	 */
+	void onSample(long rttNanos, int inFlight) {
+		updateMinRtt(rttNanos);
+		if (rttNanos > minRttNanos * TOLERANCE) {
+			backoff();
+			return;
+		}
+		for (;;) {
+			long bits = limitBits;
+			double limit = Double.longBitsToDouble(bits);
+			if (inFlight < (int) limit || limit >= maxLimit) {
+				return;
+			}
+			double next = Math.min(maxLimit, limit + 1d / limit);
+			if (LIMIT.compareAndSet(this, bits, Double.doubleToRawLongBits(next))) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Account for a failure to connect.
+	 */
+	void onDrop() {
+		backoff();
+	}
+
+	void backoff() {
+		for (;;) {
+			long bits = limitBits;
+			double limit = Double.longBitsToDouble(bits);
+			double next = Math.max(minLimit, limit * BACKOFF_RATIO);
+			if (next == limit || LIMIT.compareAndSet(this, bits, Double.doubleToRawLongBits(next))) {
+				return;
+			}
+		}
+	}
+
+	void updateMinRtt(long rttNanos) {
+		updateMin(MIN_RTT, rttNanos);
+		updateMin(WINDOW_MIN_RTT, rttNanos);
+		if ((SAMPLES.incrementAndGet(this) & (WINDOW - 1)) == 0) {
+			minRttNanos = WINDOW_MIN_RTT.getAndSet(this, Long.MAX_VALUE);
+		}
+	}
+
+	void updateMin(AtomicLongFieldUpdater<AdaptiveConnectionLimit> updater, long value) {
+		for (;;) {
+			long current = updater.get(this);
+			if (value >= current || updater.compareAndSet(this, current, value)) {
+				return;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "AdaptiveConnectionLimit{" +
+				"limit=" + limit() +
+				", minLimit=" + minLimit +
+				", maxLimit=" + maxLimit +
+				", minRttNanos=" + minRttNanos +
+				'}';
+	}
+}
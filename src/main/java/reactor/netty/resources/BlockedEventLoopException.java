@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.resources;
+
+import java.time.Duration;
+
+/**
+ * An exception reporting an event loop that has not made progress for longer than
+ * the threshold of an {@link EventLoopWatchdog}. Its stack trace is the one of the
+ * event loop thread when the stall was detected, pointing at the blocking code.
+ *
+ * @since 0.8.6
+ */
+public final class BlockedEventLoopException extends RuntimeException {
+
+	final String   threadName;
+	final Duration blockedTime;
+
+	BlockedEventLoopException(Thread thread, Duration blockedTime) {
+		super("Event loop " + thread.getName() + " has not made progress for " +
+				blockedTime.toMillis() + "ms");
+		this.threadName = thread.getName();
+		this.blockedTime = blockedTime;
+		setStackTrace(thread.getStackTrace());
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
+
+	/**
+	 * Return the name of the blocked event loop thread
+	 *
+	 * @return the name of the blocked event loop thread
+	 */
+	public String threadName() {
+		return threadName;
+	}
+
+	/**
+	 * Return the time the event loop has been blocked for when detected
+	 *
+	 * @return the time the event loop has been blocked for
+	 */
+	public Duration blockedTime() {
+		return blockedTime;
+	}
+}
@@ -66,11 +66,17 @@ final class ColocatedEventLoopGroup implements EventLoopGroup, Supplier<EventLoo
 
 	@Override
 	public ChannelFuture register(Channel channel) {
+		if (eventLoopGroup instanceof MonitoredEventLoopGroup) {
+			return ((MonitoredEventLoopGroup) eventLoopGroup).register(next(), channel);
+		}
 		return next().register(channel);
 	}
 
 	@Override
 	public ChannelFuture register(ChannelPromise promise) {
+		if (eventLoopGroup instanceof MonitoredEventLoopGroup) {
+			return ((MonitoredEventLoopGroup) eventLoopGroup).register(next(), promise);
+		}
 		return next().register(promise);
 	}
 
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.resources;
+
+/**
+ * A live view of the connections held by a {@link ConnectionProvider} pool for a
+ * given remote address.
+ *
+ * @since 0.8.6
+ */
+public interface ConnectionPoolMetrics {
+
+	/**
+	 * Return an identifier telling this pool apart from the other pools of the same
+	 * {@link ConnectionProvider} for the same remote address, as created when client
+	 * pipelines do not share pools.
+	 *
+	 * @return the pool identifier
+	 */
+	String id();
+
+	/**
+	 * Return the number of connections currently acquired from the pool.
+	 *
+	 * @return the number of acquired connections
+	 */
+	int acquiredSize();
+
+	/**
+	 * Return the number of connections currently idle in the pool.
+	 *
+	 * @return the number of idle connections
+	 */
+	int idleSize();
+
+	/**
+	 * Return the number of connections currently opened by the pool, acquired or
+	 * idle.
+	 *
+	 * @return the number of allocated connections
+	 */
+	default int allocatedSize() {
+		return acquiredSize() + idleSize();
+	}
+
+	/**
+	 * Return the number of acquirers waiting for a connection to be released, when
+	 * the pool implementation tracks them.
+	 *
+	 * @return the number of pending acquirers
+	 */
+	int pendingAcquireSize();
+
+	/**
+	 * Return the maximum number of connections the pool can open or -1 when
+	 * unbounded.
+	 *
+	 * @return the maximum number of connections
+	 */
+	int maxAllocatedSize();
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.resources;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+
+/**
+ * Receive the events of the pools created by a {@link ConnectionProvider}, as
+ * configured with {@link ConnectionProvider.Builder#metrics(ConnectionPoolMetricsRecorder)}.
+ * Implementations bridge them to a metrics library: gauges can be registered against
+ * the {@link ConnectionPoolMetrics} view, acquire times fed into a histogram and
+ * created/closed connections into counters from which rates are derived.
+ * <p>Callbacks are invoked from event loop threads and must not block.
+ *
+ * @since 0.8.6
+ */
+public interface ConnectionPoolMetricsRecorder {
+
+	/**
+	 * A new pool has been created for the given remote address. Several pools may
+	 * serve the same address, {@link ConnectionPoolMetrics#id()} tells them apart.
+	 *
+	 * @param poolName the {@link ConnectionProvider} name
+	 * @param remoteAddress the remote address served by the pool
+	 * @param metrics a live view of the pool connections
+	 */
+	default void registerPool(String poolName, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+	}
+
+	/**
+	 * A pool has been disposed, any gauge registered with
+	 * {@link #registerPool(String, SocketAddress, ConnectionPoolMetrics)} should be
+	 * removed.
+	 *
+	 * @param poolName the {@link ConnectionProvider} name
+	 * @param remoteAddress the remote address served by the pool
+	 * @param metrics the view passed on registration
+	 */
+	default void unregisterPool(String poolName, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+	}
+
+	/**
+	 * A connection has been acquired from the pool.
+	 *
+	 * @param poolName the {@link ConnectionProvider} name
+	 * @param remoteAddress the remote address served by the pool
+	 * @param time the time spent between the acquire subscription and the connection
+	 * being available
+	 */
+	default void recordAcquireTime(String poolName, SocketAddress remoteAddress, Duration time) {
+	}
+
+	/**
+	 * An acquire failed because no connection has been released within the
+	 * configured acquire timeout.
+	 *
+	 * @param poolName the {@link ConnectionProvider} name
+	 * @param remoteAddress the remote address served by the pool
+	 */
+	default void recordAcquireTimeout(String poolName, SocketAddress remoteAddress) {
+	}
+
+	/**
+	 * A new connection has been opened by the pool.
+	 *
+	 * @param poolName the {@link ConnectionProvider} name
+	 * @param remoteAddress the remote address served by the pool
+	 */
+	default void recordConnectionCreated(String poolName, SocketAddress remoteAddress) {
+	}
+
+	/**
+	 * A connection opened by the pool has been closed.
+	 *
+	 * @param poolName the {@link ConnectionProvider} name
+	 * @param remoteAddress the remote address served by the pool
+	 */
+	default void recordConnectionClosed(String poolName, SocketAddress remoteAddress) {
+	}
+}
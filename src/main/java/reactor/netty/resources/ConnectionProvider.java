@@ -17,11 +17,19 @@
 package reactor.netty.resources;
 
 import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Objects;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.pool.ChannelHealthChecker;
 import io.netty.channel.pool.FixedChannelPool;
 import io.netty.channel.pool.SimpleChannelPool;
+import org.reactivestreams.Publisher;
 import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.netty.Connection;
 import reactor.netty.ReactorNetty;
@@ -55,6 +63,15 @@ public interface ConnectionProvider extends Disposable {
 			ReactorNetty.POOL_ACQUIRE_TIMEOUT,
 			"" + 45000));
 
+	/**
+	 * Default pool implementation used by {@link #fixed} and {@link #elastic}, if true
+	 * the lock-free reactor-netty pool will be used instead of the Netty
+	 * {@link FixedChannelPool} and {@link SimpleChannelPool}. Fallback false
+	 */
+	boolean DEFAULT_POOL_LOCK_FREE = Boolean.parseBoolean(System.getProperty(
+			ReactorNetty.POOL_LOCK_FREE,
+			"false"));
+
 	/**
 	 * Return a {@link ConnectionProvider} that will always create a new
 	 * {@link Connection}.
@@ -78,6 +95,10 @@ public interface ConnectionProvider extends Disposable {
 	 * {@link Connection}
 	 */
 	static ConnectionProvider elastic(String name) {
+		if (DEFAULT_POOL_LOCK_FREE) {
+			return builder(name).maxConnections(-1)
+			                    .build();
+		}
 		return new PooledConnectionProvider(name,
 				(bootstrap, handler, checker) -> new SimpleChannelPool(bootstrap,
 						handler,
@@ -142,6 +163,11 @@ public interface ConnectionProvider extends Disposable {
 		if (acquireTimeout != -1L && acquireTimeout < 0) {
 			throw new IllegalArgumentException("Acquire Timeout value must " + "be " + "positive");
 		}
+		if (DEFAULT_POOL_LOCK_FREE) {
+			return builder(name).maxConnections(maxConnections)
+			                    .acquireTimeout(acquireTimeout)
+			                    .build();
+		}
 		return new PooledConnectionProvider(name,
 				(bootstrap, handler, checker) -> new FixedChannelPool(bootstrap,
 						handler,
@@ -155,6 +181,64 @@ public interface ConnectionProvider extends Disposable {
 				maxConnections);
 	}
 
+	/**
+	 * Create a {@link ConnectionProvider} spreading connections over the given
+	 * endpoints, each of them pooled by the given {@link ConnectionProvider}. Every
+	 * acquire leases from the endpoint with the fewest connections in flight out of two
+	 * picked at random. The remote address configured on the client is replaced by the
+	 * chosen endpoint.
+	 *
+	 * @param provider the {@link ConnectionProvider} pooling the connections of each
+	 * endpoint
+	 * @param endpoints the endpoint addresses
+	 *
+	 * @return a new load balancing {@link ConnectionProvider}
+	 * @since 0.8.6
+	 */
+	static ConnectionProvider loadBalanced(ConnectionProvider provider,
+			Collection<? extends SocketAddress> endpoints) {
+		Objects.requireNonNull(endpoints, "endpoints");
+		if (endpoints.isEmpty()) {
+			throw new IllegalArgumentException("At least one endpoint must be provided");
+		}
+		return loadBalanced(provider, Flux.<Collection<? extends SocketAddress>>just(new ArrayList<>(endpoints))
+		                                  .concatWith(Flux.never()));
+	}
+
+	/**
+	 * Create a {@link ConnectionProvider} spreading connections over the endpoints
+	 * emitted by the given {@link Publisher}, each of them pooled by the given
+	 * {@link ConnectionProvider}. Every emission replaces the previous set of endpoints,
+	 * the pools of the endpoints that are not part of the new set are disposed. Acquires
+	 * wait for the first non empty set of endpoints.
+	 *
+	 * @param provider the {@link ConnectionProvider} pooling the connections of each
+	 * endpoint
+	 * @param endpoints the {@link Publisher} of endpoint addresses
+	 *
+	 * @return a new load balancing {@link ConnectionProvider}
+	 * @since 0.8.6
+	 */
+	static ConnectionProvider loadBalanced(ConnectionProvider provider,
+			Publisher<? extends Collection<? extends SocketAddress>> endpoints) {
+		return new LoadBalancedConnectionProvider(provider, endpoints);
+	}
+
+	/**
+	 * Create a builder for a {@link ConnectionProvider} backed by the lock-free
+	 * reactor-netty pool. Idle connections are leased from a lock-free stack on the
+	 * calling thread and pending acquirers wait in a multi-producer queue served as
+	 * soon as a connection is released.
+	 *
+	 * @param name the connection pool name
+	 *
+	 * @return a new {@link Builder}
+	 * @since 0.8.6
+	 */
+	static Builder builder(String name) {
+		return new Builder(name);
+	}
+
 	/**
 	 * Return an existing or new {@link Connection} on subscribe.
 	 *
@@ -164,6 +248,22 @@ public interface ConnectionProvider extends Disposable {
 	 */
 	Mono<? extends Connection> acquire(Bootstrap bootstrap);
 
+	/**
+	 * Open up to the given number of connections for the given {@link Bootstrap}
+	 * and park them in the pool, so that first requests do not pay for the connection
+	 * and TLS handshake. Connections already allocated count towards the given number
+	 * which is also capped by {@link #maxConnections()}. Non pooling providers
+	 * complete immediately.
+	 *
+	 * @param bootstrap the client connection {@link Bootstrap}
+	 * @param connections the number of connections the pool should hold
+	 *
+	 * @return a {@link Mono} completing when the connections are ready to be acquired
+	 * @since 0.8.6
+	 */
+	default Mono<Void> warmup(Bootstrap bootstrap, int connections) {
+		return Mono.empty(); //noop default
+	}
 
 	default void disposeWhen(@NonNull SocketAddress address) {
 	}
@@ -191,4 +291,294 @@ public interface ConnectionProvider extends Disposable {
 	default int maxConnections() {
 		return -1;
 	}
+
+	/**
+	 * Build a {@link ConnectionProvider} backed by the lock-free reactor-netty pool.
+	 *
+	 * @since 0.8.6
+	 */
+	final class Builder {
+
+		final String name;
+
+		int     maxConnections = DEFAULT_POOL_MAX_CONNECTIONS;
+		long    acquireTimeout = DEFAULT_POOL_ACQUIRE_TIMEOUT;
+		int     maxPendingAcquires = -1;
+		int     adaptiveMinConnections = -1;
+		int     adaptiveInitialConnections = -1;
+		boolean fifo;
+		boolean eventLoopAffinity;
+		Duration maxIdleTime;
+		Duration maxLifeTime;
+		Duration evictionInterval;
+		ConnectionPoolMetricsRecorder metricsRecorder;
+		ChannelHealthChecker backgroundHealthChecker;
+		Duration healthCheckInterval;
+		boolean pipelineEquivalence;
+
+		Builder(String name) {
+			this.name = Objects.requireNonNull(name, "name");
+		}
+
+		Builder(Builder source) {
+			this.name = source.name;
+			this.maxConnections = source.maxConnections;
+			this.acquireTimeout = source.acquireTimeout;
+			this.maxPendingAcquires = source.maxPendingAcquires;
+			this.adaptiveMinConnections = source.adaptiveMinConnections;
+			this.adaptiveInitialConnections = source.adaptiveInitialConnections;
+			this.fifo = source.fifo;
+			this.eventLoopAffinity = source.eventLoopAffinity;
+			this.maxIdleTime = source.maxIdleTime;
+			this.maxLifeTime = source.maxLifeTime;
+			this.evictionInterval = source.evictionInterval;
+			this.metricsRecorder = source.metricsRecorder;
+			this.backgroundHealthChecker = source.backgroundHealthChecker;
+			this.healthCheckInterval = source.healthCheckInterval;
+			this.pipelineEquivalence = source.pipelineEquivalence;
+		}
+
+		/**
+		 * Set the maximum number of connections before starting pending acquisition,
+		 * -1 will never wait and open new connections in an unbounded fashion.
+		 *
+		 * @param maxConnections the maximum number of connections
+		 * @return {@code this}
+		 */
+		public final Builder maxConnections(int maxConnections) {
+			if (maxConnections != -1 && maxConnections <= 0) {
+				throw new IllegalArgumentException("Max Connections value must be strictly positive");
+			}
+			this.maxConnections = maxConnections;
+			return this;
+		}
+
+		/**
+		 * Set the maximum time in millis to wait for acquiring, -1 will wait
+		 * indefinitely.
+		 *
+		 * @param acquireTimeout the maximum time in millis to wait for acquiring
+		 * @return {@code this}
+		 */
+		public final Builder acquireTimeout(long acquireTimeout) {
+			if (acquireTimeout != -1L && acquireTimeout < 0) {
+				throw new IllegalArgumentException("Acquire Timeout value must be positive");
+			}
+			this.acquireTimeout = acquireTimeout;
+			return this;
+		}
+
+		/**
+		 * Set the maximum time to wait for acquiring.
+		 *
+		 * @param acquireTimeout the maximum time to wait for acquiring
+		 * @return {@code this}
+		 */
+		public final Builder acquireTimeout(Duration acquireTimeout) {
+			Objects.requireNonNull(acquireTimeout, "acquireTimeout");
+			return acquireTimeout(acquireTimeout.toMillis());
+		}
+
+		/**
+		 * Adapt the number of connections leased at once to each remote address between
+		 * the given minimum and {@link #maxConnections(int)}, starting from the given
+		 * initial value. The limit shrinks multiplicatively when leases take more than
+		 * twice the shortest recently observed lease time or when connecting fails, and
+		 * grows by one connection per round of leases while all connections are in use.
+		 * <p>The lease time is the time a connection is acquired for, which is the
+		 * response latency for protocols issuing one request per lease such as HTTP/1.1.
+		 * Acquirers beyond the current limit are pending as for a fixed pool.
+		 *
+		 * @param minConnections the lowest limit, strictly positive
+		 * @param initialConnections the initial limit
+		 * @return {@code this}
+		 */
+		public final Builder adaptiveMaxConnections(int minConnections, int initialConnections) {
+			if (minConnections <= 0) {
+				throw new IllegalArgumentException("Min Connections value must be strictly positive");
+			}
+			if (initialConnections < minConnections) {
+				throw new IllegalArgumentException("Initial Connections value must be greater " +
+						"than or equal to Min Connections value");
+			}
+			this.adaptiveMinConnections = minConnections;
+			this.adaptiveInitialConnections = initialConnections;
+			return this;
+		}
+
+		/**
+		 * Set the maximum number of acquirers waiting for a connection once
+		 * {@link #maxConnections(int)} are in use, -1 will queue them in an unbounded
+		 * fashion. Acquires beyond that limit fail immediately with a
+		 * {@link PoolAcquirePendingLimitException} instead of waiting for
+		 * {@link #acquireTimeout(long)}.
+		 *
+		 * @param maxPendingAcquires the maximum number of pending acquires
+		 * @return {@code this}
+		 */
+		public final Builder maxPendingAcquires(int maxPendingAcquires) {
+			if (maxPendingAcquires != -1 && maxPendingAcquires < 0) {
+				throw new IllegalArgumentException("Max Pending Acquires value must be positive");
+			}
+			this.maxPendingAcquires = maxPendingAcquires;
+			return this;
+		}
+
+		/**
+		 * Lease the idle connection that has been released first, spreading the load
+		 * over all the pooled connections.
+		 *
+		 * @return {@code this}
+		 */
+		public final Builder fifo() {
+			this.fifo = true;
+			return this;
+		}
+
+		/**
+		 * Lease the idle connection that has been released last, keeping a hot subset
+		 * of connections in use while the others age out through
+		 * {@link #maxIdleTime(Duration)}. This is the default.
+		 *
+		 * @return {@code this}
+		 */
+		public final Builder lifo() {
+			this.fifo = false;
+			return this;
+		}
+
+		/**
+		 * Partition idle connections by the event loop they are registered on. An
+		 * acquire issued from an event loop will first lease a connection bound to
+		 * that loop and open new connections on it, stealing from the other loops only
+		 * when none is idle. Default to false.
+		 *
+		 * @param eventLoopAffinity true to lease connections from the calling event loop
+		 * first
+		 * @return {@code this}
+		 */
+		public final Builder eventLoopAffinity(boolean eventLoopAffinity) {
+			this.eventLoopAffinity = eventLoopAffinity;
+			return this;
+		}
+
+		/**
+		 * Set the maximum time a connection can stay idle in the pool before being
+		 * closed. By default idle connections are kept until closed by the remote peer.
+		 *
+		 * @param maxIdleTime the maximum idle time
+		 * @return {@code this}
+		 */
+		public final Builder maxIdleTime(Duration maxIdleTime) {
+			this.maxIdleTime = requirePositive(maxIdleTime, "maxIdleTime");
+			return this;
+		}
+
+		/**
+		 * Set the maximum time a connection can live since it has been opened. An
+		 * expired connection is closed when released or found idle. By default
+		 * connections have no max life time.
+		 *
+		 * @param maxLifeTime the maximum life time
+		 * @return {@code this}
+		 */
+		public final Builder maxLifeTime(Duration maxLifeTime) {
+			this.maxLifeTime = requirePositive(maxLifeTime, "maxLifeTime");
+			return this;
+		}
+
+		/**
+		 * Periodically close the idle connections exceeding {@link #maxIdleTime} or
+		 * {@link #maxLifeTime}. The sweep runs on one of the event loops of each pool.
+		 * By default expired connections are only discovered when acquired.
+		 *
+		 * @param evictionInterval the delay between two eviction sweeps
+		 * @return {@code this}
+		 */
+		public final Builder evictionInterval(Duration evictionInterval) {
+			this.evictionInterval = requirePositive(evictionInterval, "evictionInterval");
+			return this;
+		}
+
+		/**
+		 * Periodically check the connections idle for longer than the given interval
+		 * with the given health checker, in the background on one of the event loops
+		 * of each pool. The checker may complete asynchronously, e.g. after an
+		 * application level ping, a connection being checked is not leased and is
+		 * closed when the check fails or does not complete within the interval. By
+		 * default idle connections are only checked for {@link Channel#isActive()}
+		 * when acquired.
+		 *
+		 * @param healthChecker the {@link ChannelHealthChecker} probing idle connections
+		 * @param interval the delay between two checks of an idle connection
+		 * @return {@code this}
+		 */
+		public final Builder healthCheck(ChannelHealthChecker healthChecker, Duration interval) {
+			this.backgroundHealthChecker = Objects.requireNonNull(healthChecker, "healthChecker");
+			this.healthCheckInterval = requirePositive(interval, "interval");
+			return this;
+		}
+
+		/**
+		 * Report the pool sizes, acquire times and timeouts, and the created and closed
+		 * connections of each remote address to the given recorder. Disabled by
+		 * default.
+		 *
+		 * @param recorder the {@link ConnectionPoolMetricsRecorder} receiving the pool
+		 * events
+		 * @return {@code this}
+		 */
+		public final Builder metrics(ConnectionPoolMetricsRecorder recorder) {
+			this.metricsRecorder = Objects.requireNonNull(recorder, "recorder");
+			return this;
+		}
+
+		/**
+		 * Share one pool per remote address between bootstraps whose pipeline
+		 * configurations have the same names, in the same order, and are built by the
+		 * same functions, even when those functions capture different instances. By
+		 * default a pool is created for every distinct pipeline configuration.
+		 * Connections of a shared pool are initialized with the configuration of the
+		 * bootstrap that created the pool.
+		 *
+		 * @param pipelineEquivalence true to share pools between pipeline-equivalent
+		 * bootstraps
+		 * @return {@code this}
+		 * @see reactor.netty.channel.BootstrapHandlers#pipelineKey
+		 */
+		public final Builder pipelineEquivalence(boolean pipelineEquivalence) {
+			this.pipelineEquivalence = pipelineEquivalence;
+			return this;
+		}
+
+		/**
+		 * Build the configured {@link ConnectionProvider}
+		 *
+		 * @return a new {@link ConnectionProvider}
+		 */
+		public final ConnectionProvider build() {
+			Builder spec = new Builder(this);
+			if (spec.adaptiveMinConnections > 0 && spec.maxConnections != -1 &&
+					spec.adaptiveInitialConnections > spec.maxConnections) {
+				throw new IllegalArgumentException("Initial Connections value must be lower " +
+						"than or equal to Max Connections value");
+			}
+			return new PooledConnectionProvider(name,
+					(bootstrap, handler, checker) -> new LockFreeChannelPool(bootstrap,
+							handler,
+							checker,
+							spec),
+					spec.maxConnections,
+					spec.metricsRecorder,
+					spec.pipelineEquivalence);
+		}
+
+		static Duration requirePositive(Duration duration, String name) {
+			Objects.requireNonNull(duration, name);
+			if (duration.isNegative() || duration.isZero()) {
+				throw new IllegalArgumentException(name + " must be strictly positive");
+			}
+			return duration;
+		}
+	}
 }
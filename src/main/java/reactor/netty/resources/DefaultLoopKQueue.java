@@ -88,6 +88,9 @@ final class DefaultLoopKQueue implements DefaultLoop {
 		if (group instanceof ColocatedEventLoopGroup) {
 			group = ((ColocatedEventLoopGroup) group).get();
 		}
+		if (group instanceof MonitoredEventLoopGroup) {
+			group = ((MonitoredEventLoopGroup) group).get();
+		}
 		return group instanceof KQueueEventLoopGroup;
 	}
 }
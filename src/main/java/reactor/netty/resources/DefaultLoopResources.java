@@ -27,6 +27,7 @@ import io.netty.util.concurrent.Future;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.NonBlocking;
 import reactor.netty.FutureMono;
+import reactor.util.annotation.Nullable;
 
 /**
  * An adapted global eventLoop handler.
@@ -46,6 +47,8 @@ final class DefaultLoopResources extends AtomicLong implements LoopResources {
 	final AtomicReference<EventLoopGroup> cacheNativeServerLoops;
 	final AtomicReference<EventLoopGroup> cacheNativeSelectLoops;
 	final AtomicBoolean                   running;
+	final EventLoopMetricsRecorder        metricsRecorder;
+	final boolean                         leastLoaded;
 
 	static ThreadFactory threadFactory(DefaultLoopResources parent, String prefix) {
 		return new EventLoopFactory(parent.daemon,
@@ -61,7 +64,18 @@ final class DefaultLoopResources extends AtomicLong implements LoopResources {
 			int selectCount,
 			int workerCount,
 			boolean daemon) {
+		this(prefix, selectCount, workerCount, daemon, null, false);
+	}
+
+	DefaultLoopResources(String prefix,
+			int selectCount,
+			int workerCount,
+			boolean daemon,
+			@Nullable EventLoopMetricsRecorder metricsRecorder,
+			boolean leastLoaded) {
 		this.running = new AtomicBoolean(true);
+		this.metricsRecorder = metricsRecorder;
+		this.leastLoaded = leastLoaded;
 		this.daemon = daemon;
 		this.workerCount = workerCount;
 		this.prefix = prefix;
@@ -146,8 +160,8 @@ final class DefaultLoopResources extends AtomicLong implements LoopResources {
 
 		EventLoopGroup eventLoopGroup = serverSelectLoops.get();
 		if (null == eventLoopGroup) {
-			EventLoopGroup newEventLoopGroup = new NioEventLoopGroup(selectCount,
-					threadFactory(this, "select-nio"));
+			EventLoopGroup newEventLoopGroup = monitor(new NioEventLoopGroup(selectCount,
+					threadFactory(this, "select-nio")), "select-nio");
 			if (!serverSelectLoops.compareAndSet(null, newEventLoopGroup)) {
 				newEventLoopGroup.shutdownGracefully();
 			}
@@ -167,8 +181,8 @@ final class DefaultLoopResources extends AtomicLong implements LoopResources {
 	EventLoopGroup cacheNioServerLoops() {
 		EventLoopGroup eventLoopGroup = serverLoops.get();
 		if (null == eventLoopGroup) {
-			EventLoopGroup newEventLoopGroup = new NioEventLoopGroup(workerCount,
-					threadFactory(this, "nio"));
+			EventLoopGroup newEventLoopGroup = monitor(new NioEventLoopGroup(workerCount,
+					threadFactory(this, "nio")), "nio");
 			if (!serverLoops.compareAndSet(null, newEventLoopGroup)) {
 				newEventLoopGroup.shutdownGracefully();
 			}
@@ -204,6 +218,7 @@ final class DefaultLoopResources extends AtomicLong implements LoopResources {
 				", daemon=" + daemon +
 				", selectCount=" + selectCount +
 				", workerCount=" + workerCount +
+				", leastLoaded=" + leastLoaded +
 				'}';
 	}
 
@@ -215,9 +230,10 @@ final class DefaultLoopResources extends AtomicLong implements LoopResources {
 		EventLoopGroup eventLoopGroup = cacheNativeSelectLoops.get();
 		if (null == eventLoopGroup) {
 			DefaultLoop defaultLoop = DefaultLoopNativeDetector.getInstance();
-			EventLoopGroup newEventLoopGroup = defaultLoop.newEventLoopGroup(
+			EventLoopGroup newEventLoopGroup = monitor(defaultLoop.newEventLoopGroup(
 					selectCount,
-					threadFactory(this, "select-" + defaultLoop.getName()));
+					threadFactory(this, "select-" + defaultLoop.getName())),
+					"select-" + defaultLoop.getName());
 			if (!cacheNativeSelectLoops.compareAndSet(null, newEventLoopGroup)) {
 				newEventLoopGroup.shutdownGracefully();
 			}
@@ -230,9 +246,10 @@ final class DefaultLoopResources extends AtomicLong implements LoopResources {
 		EventLoopGroup eventLoopGroup = cacheNativeServerLoops.get();
 		if (null == eventLoopGroup) {
 			DefaultLoop defaultLoop = DefaultLoopNativeDetector.getInstance();
-			EventLoopGroup newEventLoopGroup = defaultLoop.newEventLoopGroup(
+			EventLoopGroup newEventLoopGroup = monitor(defaultLoop.newEventLoopGroup(
 					workerCount,
-					threadFactory(this, defaultLoop.getName()));
+					threadFactory(this, defaultLoop.getName())),
+					defaultLoop.getName());
 			if (!cacheNativeServerLoops.compareAndSet(null, newEventLoopGroup)) {
 				newEventLoopGroup.shutdownGracefully();
 			}
@@ -253,6 +270,17 @@ final class DefaultLoopResources extends AtomicLong implements LoopResources {
 		return eventLoopGroup;
 	}
 
+	EventLoopGroup monitor(EventLoopGroup group, String name) {
+		EventLoopWatchdog watchdog = EventLoopWatchdog.DEFAULT;
+		if (watchdog != null) {
+			watchdog.watch(group);
+		}
+		if (metricsRecorder == null && !leastLoaded) {
+			return group;
+		}
+		return new MonitoredEventLoopGroup(group, prefix + "-" + name, metricsRecorder, leastLoaded);
+	}
+
 	final static class EventLoopFactory implements ThreadFactory {
 
 		final boolean    daemon;
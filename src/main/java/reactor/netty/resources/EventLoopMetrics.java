@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.resources;
+
+/**
+ * A live view of an event loop created by a {@link LoopResources}.
+ *
+ * @since 0.8.6
+ */
+public interface EventLoopMetrics {
+
+	/**
+	 * Return the number of tasks waiting in the event loop queue, or -1 if the event
+	 * loop implementation does not expose it.
+	 *
+	 * @return the number of pending tasks
+	 */
+	int pendingTasks();
+
+	/**
+	 * Return the number of channels currently registered on the event loop.
+	 *
+	 * @return the number of registered channels
+	 */
+	int registeredChannels();
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.resources;
+
+import java.time.Duration;
+
+/**
+ * Receive the events of the event loops created by a {@link LoopResources}, as
+ * configured with
+ * {@link LoopResources#create(String, int, boolean, EventLoopMetricsRecorder)}.
+ * Implementations bridge them to a metrics library: gauges can be registered against
+ * the {@link EventLoopMetrics} view and scheduling delays fed into a histogram, a
+ * growing delay being the first sign of a loop saturated or blocked by user code.
+ * <p>Callbacks are invoked from event loop threads and must not block.
+ *
+ * @since 0.8.6
+ */
+public interface EventLoopMetricsRecorder {
+
+	/**
+	 * A new event loop has been created.
+	 *
+	 * @param loopName the event loop name, made of the {@link LoopResources} prefix,
+	 * the transport and the loop index
+	 * @param metrics a live view of the event loop
+	 */
+	default void registerEventLoop(String loopName, EventLoopMetrics metrics) {
+	}
+
+	/**
+	 * An event loop has been shut down, any gauge registered with
+	 * {@link #registerEventLoop(String, EventLoopMetrics)} should be removed.
+	 *
+	 * @param loopName the event loop name
+	 * @param metrics the view passed on registration
+	 */
+	default void unregisterEventLoop(String loopName, EventLoopMetrics metrics) {
+	}
+
+	/**
+	 * A periodic task has been run by the event loop.
+	 *
+	 * @param loopName the event loop name
+	 * @param delay the time elapsed between the task being due and the task being
+	 * run
+	 */
+	void recordTaskSchedulingDelay(String loopName, Duration delay);
+}
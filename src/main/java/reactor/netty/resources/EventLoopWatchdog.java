@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.resources;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import reactor.core.Disposable;
+import reactor.netty.ReactorNetty;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Detect event loops blocked by user code. Each watched event loop runs a periodic
+ * heartbeat task and a watchdog thread reports, as a {@link BlockedEventLoopException}
+ * carrying the stack trace of the event loop thread, any event loop whose heartbeat
+ * is late by more than the threshold. A stall is reported once.
+ * <p>The event loops created by the default {@link LoopResources} are watched when
+ * the system property {@code reactor.netty.ioBlockingThreshold} is set.
+ *
+ * @since 0.8.6
+ */
+public final class EventLoopWatchdog implements Disposable {
+
+	static final Logger log = Loggers.getLogger(EventLoopWatchdog.class);
+
+	/**
+	 * Watchdog used by the default {@link LoopResources}, or null when
+	 * {@link ReactorNetty#IO_BLOCKING_THRESHOLD} is not set
+	 */
+	@Nullable
+	static final EventLoopWatchdog DEFAULT;
+
+	static {
+		long threshold = Long.parseLong(System.getProperty(ReactorNetty.IO_BLOCKING_THRESHOLD, "-1"));
+		DEFAULT = threshold > 0 ? create(Duration.ofMillis(threshold)) : null;
+	}
+
+	/**
+	 * Create a watchdog logging the blocked event loops at {@code WARN} level.
+	 *
+	 * @param threshold the time after which an event loop not making progress is
+	 * reported
+	 *
+	 * @return a new {@link EventLoopWatchdog}
+	 */
+	public static EventLoopWatchdog create(Duration threshold) {
+		return create(threshold, e -> log.warn(e.getMessage(), e));
+	}
+
+	/**
+	 * Create a watchdog passing the blocked event loops to the given reporter.
+	 *
+	 * @param threshold the time after which an event loop not making progress is
+	 * reported
+	 * @param reporter the callback receiving the blocked event loops, invoked from the
+	 * watchdog thread
+	 *
+	 * @return a new {@link EventLoopWatchdog}
+	 */
+	public static EventLoopWatchdog create(Duration threshold,
+			Consumer<? super BlockedEventLoopException> reporter) {
+		Objects.requireNonNull(threshold, "threshold");
+		Objects.requireNonNull(reporter, "reporter");
+		if (threshold.isNegative() || threshold.isZero()) {
+			throw new IllegalArgumentException("Threshold must be strictly positive, was: " + threshold);
+		}
+		return new EventLoopWatchdog(threshold.toNanos(), reporter);
+	}
+
+	final long                                        thresholdNanos;
+	final long                                        periodNanos;
+	final Consumer<? super BlockedEventLoopException> reporter;
+	final Queue<Heartbeat>                            heartbeats;
+	final ScheduledExecutorService                    watchdog;
+
+	EventLoopWatchdog(long thresholdNanos, Consumer<? super BlockedEventLoopException> reporter) {
+		this.thresholdNanos = thresholdNanos;
+		this.periodNanos = Math.max(thresholdNanos / 2, 1L);
+		this.reporter = reporter;
+		this.heartbeats = new ConcurrentLinkedQueue<>();
+		this.watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "reactor-netty-watchdog");
+			t.setDaemon(true);
+			return t;
+		});
+		this.watchdog.scheduleAtFixedRate(this::check, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Watch every event loop of the given group until it is shut down.
+	 *
+	 * @param group the {@link EventLoopGroup} to watch
+	 *
+	 * @return this {@link EventLoopWatchdog}
+	 */
+	public EventLoopWatchdog watch(EventLoopGroup group) {
+		Objects.requireNonNull(group, "group");
+		if (isDisposed()) {
+			throw new IllegalStateException("Watchdog disposed");
+		}
+		for (EventExecutor executor : group) {
+			Heartbeat heartbeat = new Heartbeat(executor);
+			// capture the event loop thread before watching, a loop blocking in a task
+			// submitted ahead of its first scheduled heartbeat is then still reported
+			if (executor.inEventLoop()) {
+				heartbeat.run();
+			}
+			else {
+				executor.submit(heartbeat)
+				        .awaitUninterruptibly(thresholdNanos, TimeUnit.NANOSECONDS);
+			}
+			heartbeats.add(heartbeat);
+			heartbeat.future =
+					executor.scheduleAtFixedRate(heartbeat, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+		}
+		return this;
+	}
+
+	void check() {
+		long now = System.nanoTime();
+		for (Heartbeat heartbeat : heartbeats) {
+			if (heartbeat.executor.isShuttingDown()) {
+				heartbeats.remove(heartbeat);
+				heartbeat.cancel();
+				continue;
+			}
+			Thread thread = heartbeat.thread;
+			long lastBeat = heartbeat.lastBeat;
+			// the next heartbeat is expected one period after the last one
+			long blocked = now - lastBeat - periodNanos;
+			if (thread != null && blocked >= thresholdNanos && heartbeat.reportedBeat != lastBeat) {
+				heartbeat.reportedBeat = lastBeat;
+				try {
+					reporter.accept(new BlockedEventLoopException(thread, Duration.ofNanos(blocked)));
+				}
+				catch (Throwable t) {
+					log.error("Blocked event loop reporter failed", t);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void dispose() {
+		watchdog.shutdownNow();
+		Heartbeat heartbeat;
+		while ((heartbeat = heartbeats.poll()) != null) {
+			heartbeat.cancel();
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return watchdog.isShutdown();
+	}
+
+	static final class Heartbeat implements Runnable {
+
+		final EventExecutor executor;
+
+		volatile Thread             thread;
+		volatile long               lastBeat;
+		volatile ScheduledFuture<?> future;
+
+		long reportedBeat;
+
+		Heartbeat(EventExecutor executor) {
+			this.executor = executor;
+			this.lastBeat = System.nanoTime();
+			this.reportedBeat = this.lastBeat - 1;
+		}
+
+		@Override
+		public void run() {
+			thread = Thread.currentThread();
+			lastBeat = System.nanoTime();
+		}
+
+		void cancel() {
+			ScheduledFuture<?> future = this.future;
+			if (future != null) {
+				future.cancel(false);
+			}
+		}
+	}
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.resources;
+
+import java.net.SocketAddress;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.netty.bootstrap.Bootstrap;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.channel.BootstrapHandlers;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.annotation.NonNull;
+
+/**
+ * A {@link ConnectionProvider} spreading acquires over a set of endpoints, each of them
+ * pooled by a delegate {@link ConnectionProvider}. Every acquire picks two endpoints
+ * at random and leases from the one with the fewest connections in flight, which
+ * avoids both the herding of least-loaded selection and the imbalance of random
+ * selection.
+ * <p>The remote address configured on the client is replaced by the chosen endpoint,
+ * protocol level information such as the HTTP host header is left untouched.
+ * Endpoints removed by an update have their pools disposed, connections in flight are
+ * closed when released.
+ *
+ * @since 0.8.6
+ */
+final class LoadBalancedConnectionProvider implements ConnectionProvider {
+
+	static final Logger log = Loggers.getLogger(LoadBalancedConnectionProvider.class);
+
+	static final Endpoint[] EMPTY = new Endpoint[0];
+
+	final ConnectionProvider    delegate;
+	final Disposable            updates;
+	final MonoProcessor<Void>   ready = MonoProcessor.create();
+
+	volatile Endpoint[] endpoints = EMPTY;
+
+	LoadBalancedConnectionProvider(ConnectionProvider delegate,
+			Publisher<? extends Collection<? extends SocketAddress>> endpoints) {
+		this.delegate = Objects.requireNonNull(delegate, "delegate");
+		Objects.requireNonNull(endpoints, "endpoints");
+		this.updates = Flux.from(endpoints)
+		                   .subscribe(this::update,
+				                   this::onUpdateError,
+				                   () -> onUpdateError(new IllegalStateException("No endpoint available")));
+	}
+
+	@Override
+	public Mono<? extends Connection> acquire(Bootstrap bootstrap) {
+		if (endpoints.length == 0) {
+			return ready.then(Mono.defer(() -> acquire(bootstrap, choose())));
+		}
+		return Mono.defer(() -> acquire(bootstrap, choose()));
+	}
+
+	Mono<? extends Connection> acquire(Bootstrap bootstrap, Endpoint endpoint) {
+		Bootstrap b = bootstrap.clone()
+		                       .remoteAddress(endpoint.address);
+		InFlightObserver inFlight = new InFlightObserver(endpoint);
+		BootstrapHandlers.connectionObserver(b,
+				BootstrapHandlers.connectionObserver(b)
+				                 .then(inFlight));
+		endpoint.inFlight.incrementAndGet();
+		return delegate.acquire(b)
+		               .doOnNext(c -> inFlight.acquired = true)
+		               .doOnError(e -> inFlight.done())
+		               .doOnCancel(inFlight::cancel);
+	}
+
+	/**
+	 * Pick the least loaded of two endpoints chosen at random.
+	 *
+	 * @return the selected endpoint
+	 */
+	Endpoint choose() {
+		Endpoint[] endpoints = this.endpoints;
+		int n = endpoints.length;
+		if (n == 0) {
+			throw new IllegalStateException("No endpoint available");
+		}
+		if (n == 1) {
+			return endpoints[0];
+		}
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int i = random.nextInt(n);
+		int j = random.nextInt(n - 1);
+		if (j >= i) {
+			j++;
+		}
+		Endpoint a = endpoints[i];
+		Endpoint b = endpoints[j];
+		return a.inFlight.get() <= b.inFlight.get() ? a : b;
+	}
+
+	void update(Collection<? extends SocketAddress> addresses) {
+		Map<SocketAddress, Endpoint> previous = new LinkedHashMap<>();
+		for (Endpoint endpoint : endpoints) {
+			previous.put(endpoint.address, endpoint);
+		}
+		Endpoint[] next = new Endpoint[addresses.size()];
+		int n = 0;
+		for (SocketAddress address : addresses) {
+			Endpoint endpoint = previous.remove(address);
+			next[n++] = endpoint != null ? endpoint : new Endpoint(address);
+		}
+		endpoints = next;
+		if (log.isDebugEnabled()) {
+			log.debug("Load balancing over {} endpoints, removed {}", n, previous.keySet());
+		}
+		for (SocketAddress removed : previous.keySet()) {
+			delegate.disposeWhen(removed);
+		}
+		if (n != 0) {
+			ready.onComplete();
+		}
+	}
+
+	void onUpdateError(Throwable error) {
+		if (!ready.isTerminated()) {
+			ready.onError(error);
+		}
+		else {
+			log.error("Endpoint updates terminated, keeping the last endpoints", error);
+		}
+	}
+
+	@Override
+	public Mono<Void> warmup(Bootstrap bootstrap, int connections) {
+		return Flux.fromArray(endpoints)
+		           .flatMap(endpoint -> delegate.warmup(bootstrap.clone()
+		                                                         .remoteAddress(endpoint.address),
+				           connections))
+		           .then();
+	}
+
+	@Override
+	public void disposeWhen(@NonNull SocketAddress address) {
+		delegate.disposeWhen(address);
+	}
+
+	@Override
+	public Mono<Void> disposeLater() {
+		return Mono.defer(() -> {
+			updates.dispose();
+			return delegate.disposeLater();
+		});
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return updates.isDisposed() && delegate.isDisposed();
+	}
+
+	@Override
+	public int maxConnections() {
+		return delegate.maxConnections();
+	}
+
+	@Override
+	public String toString() {
+		return "LoadBalancedConnectionProvider {" +
+				"endpoints=" + endpoints.length +
+				", delegate=" + delegate +
+				'}';
+	}
+
+	static final class Endpoint {
+
+		final SocketAddress address;
+		final AtomicInteger inFlight = new AtomicInteger();
+
+		Endpoint(SocketAddress address) {
+			this.address = Objects.requireNonNull(address, "address");
+		}
+	}
+
+	/**
+	 * Count a lease as in flight until its connection is released or closed.
+	 */
+	static final class InFlightObserver extends AtomicBoolean implements ConnectionObserver {
+
+		final Endpoint endpoint;
+
+		volatile boolean acquired;
+
+		InFlightObserver(Endpoint endpoint) {
+			this.endpoint = endpoint;
+		}
+
+		@Override
+		public void onStateChange(Connection connection, State newState) {
+			if (newState == State.RELEASED) {
+				done();
+			}
+			else if (newState == State.DISCONNECTING) {
+				connection.onDispose(this::done);
+			}
+		}
+
+		void cancel() {
+			// a cancel following the delivery of the connection is not an abort
+			if (!acquired) {
+				done();
+			}
+		}
+
+		void done() {
+			if (compareAndSet(false, true)) {
+				endpoint.inFlight.decrementAndGet();
+			}
+		}
+	}
+}
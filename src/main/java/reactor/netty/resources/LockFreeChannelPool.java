@@ -0,0 +1,835 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.resources;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import javax.annotation.Nullable;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoop;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.channel.pool.ChannelPoolHandler;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.GenericFutureListener;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.concurrent.Queues;
+
+import static reactor.netty.ReactorNetty.format;
+
+/**
+ * A {@link ChannelPool} keeping idle channels in a lock-free stack and parking
+ * pending acquirers in a multi-producer queue drained by whichever thread gives a
+ * permit back, instead of serialising every operation on a single executor like
+ * {@link io.netty.channel.pool.FixedChannelPool} does.
+ * <p>An idle channel is leased on the calling thread and completed with a
+ * {@link Future} cached on the channel itself, so the common path neither
+ * allocates a {@link Promise} nor hops to another event loop. New channels
+ * complete on their own event loop.
+ * <p>When event loop affinity is enabled, idle channels are partitioned by the event
+ * loop they are registered on. An acquire issued from one of the pool event loops
+ * first leases a channel of that loop and opens new channels on it, only stealing
+ * from the other partitions when its own is empty.
+ * <p>Idle channels exceeding the configured max idle time or max life time are
+ * closed when polled, and optionally by a periodic eviction task running on one of
+ * the pool event loops, so that stale connections are not discovered on use.
+ * <p>Idle channels are leased most recently released first by default, keeping a hot
+ * subset of connections busy while the others age out, or oldest first to spread the
+ * load. The number of parked acquirers can be bounded, acquires beyond that limit
+ * fail immediately with {@link PoolAcquirePendingLimitException}.
+ * <p>When an {@link AdaptiveConnectionLimit} is configured the number of channels
+ * leased at once follows it, bounded by the configured max connections, and each
+ * released lease reports how long the channel has been in use.
+ * <p>Health checks are expected to complete synchronously, an incomplete result
+ * falls back to {@link Channel#isActive()}. A background health checker may
+ * complete asynchronously: channels idle for longer than its interval are taken out of
+ * the idle stack while being probed and closed if the probe fails or does not
+ * complete within the interval.
+ */
+final class LockFreeChannelPool implements ChannelPool {
+
+	static final Logger log = Loggers.getLogger(LockFreeChannelPool.class);
+
+	static final AttributeKey<LockFreeChannelPool> POOL_KEY =
+			AttributeKey.valueOf("lockFreeChannelPool");
+
+	static final AttributeKey<PooledChannel> POOLED_CHANNEL =
+			AttributeKey.valueOf("lockFreeChannelPoolChannel");
+
+	final Bootstrap             bootstrap;
+	final ChannelPoolHandler    handler;
+	final ChannelHealthChecker  healthChecker;
+	final int                   maxConnections;
+	final AdaptiveConnectionLimit adaptiveLimit;
+	final int                   maxPendingAcquires;
+	final long                  acquireTimeout;
+	final boolean               lifo;
+	final long                  maxIdleTimeNanos;
+	final long                  maxLifeTimeNanos;
+	final ChannelHealthChecker  backgroundHealthChecker;
+	final long                  healthCheckIntervalNanos;
+	final IdleChannels[]        idleChannels;
+	final Queue<PendingAcquire> pendingAcquires;
+
+	volatile int acquired;
+	static final AtomicIntegerFieldUpdater<LockFreeChannelPool> ACQUIRED =
+			AtomicIntegerFieldUpdater.newUpdater(LockFreeChannelPool.class, "acquired");
+
+	volatile int pending;
+	static final AtomicIntegerFieldUpdater<LockFreeChannelPool> PENDING =
+			AtomicIntegerFieldUpdater.newUpdater(LockFreeChannelPool.class, "pending");
+
+	volatile int wip;
+	static final AtomicIntegerFieldUpdater<LockFreeChannelPool> WIP =
+			AtomicIntegerFieldUpdater.newUpdater(LockFreeChannelPool.class, "wip");
+
+	volatile boolean closed;
+
+	ScheduledFuture<?> evictionTask;
+	ScheduledFuture<?> healthCheckTask;
+
+	/**
+	 * @param bootstrap the bootstrap used to open new channels
+	 * @param handler the {@link ChannelPoolHandler} notified of pool events
+	 * @param healthChecker the {@link ChannelHealthChecker} applied to idle channels
+	 * @param spec the pool configuration
+	 */
+	LockFreeChannelPool(Bootstrap bootstrap,
+			ChannelPoolHandler handler,
+			ChannelHealthChecker healthChecker,
+			ConnectionProvider.Builder spec) {
+		this.handler = Objects.requireNonNull(handler, "handler");
+		this.healthChecker = Objects.requireNonNull(healthChecker, "healthChecker");
+		this.maxConnections = spec.maxConnections == -1 ? Integer.MAX_VALUE : spec.maxConnections;
+		this.adaptiveLimit = spec.adaptiveMinConnections > 0 ?
+				new AdaptiveConnectionLimit(spec.adaptiveMinConnections,
+						spec.adaptiveInitialConnections,
+						this.maxConnections) : null;
+		this.maxPendingAcquires = spec.maxPendingAcquires;
+		this.acquireTimeout = spec.acquireTimeout;
+		this.lifo = !spec.fifo;
+		this.maxIdleTimeNanos = spec.maxIdleTime != null ? spec.maxIdleTime.toNanos() : -1L;
+		this.maxLifeTimeNanos = spec.maxLifeTime != null ? spec.maxLifeTime.toNanos() : -1L;
+		this.backgroundHealthChecker = spec.backgroundHealthChecker;
+		this.healthCheckIntervalNanos = spec.healthCheckInterval != null ?
+				spec.healthCheckInterval.toNanos() : -1L;
+		this.pendingAcquires = Queues.<PendingAcquire>unboundedMultiproducer().get();
+		this.bootstrap = bootstrap.clone();
+		this.bootstrap.handler(new ChannelInitializer<Channel>() {
+			@Override
+			protected void initChannel(Channel ch) throws Exception {
+				handler.channelCreated(ch);
+			}
+		});
+		List<IdleChannels> loops = new ArrayList<>();
+		if (spec.eventLoopAffinity) {
+			for (EventExecutor loop : bootstrap.config()
+			                                   .group()) {
+				if (loop instanceof EventLoop) {
+					loops.add(new IdleChannels((EventLoop) loop));
+				}
+			}
+		}
+		if (loops.size() > 1) {
+			this.idleChannels = loops.toArray(new IdleChannels[0]);
+		}
+		else {
+			this.idleChannels = new IdleChannels[]{new IdleChannels(null)};
+		}
+		if (spec.evictionInterval != null && (maxIdleTimeNanos > 0 || maxLifeTimeNanos > 0)) {
+			long interval = spec.evictionInterval.toNanos();
+			this.evictionTask = bootstrap.config()
+			                             .group()
+			                             .next()
+			                             .scheduleWithFixedDelay(this::evict,
+					                             interval,
+					                             interval,
+					                             TimeUnit.NANOSECONDS);
+		}
+		if (backgroundHealthChecker != null && healthCheckIntervalNanos > 0) {
+			this.healthCheckTask = bootstrap.config()
+			                                .group()
+			                                .next()
+			                                .scheduleWithFixedDelay(this::checkIdle,
+					                                healthCheckIntervalNanos,
+					                                healthCheckIntervalNanos,
+					                                TimeUnit.NANOSECONDS);
+		}
+	}
+
+	@Override
+	public Future<Channel> acquire() {
+		if (!closed && tryReserve()) {
+			int loop = currentLoop();
+			Channel ch = pollHealthy(loop);
+			if (ch != null) {
+				return lease(ch);
+			}
+			return connect(null, loop);
+		}
+		return acquire(bootstrap.config()
+		                        .group()
+		                        .next()
+		                        .newPromise());
+	}
+
+	@Override
+	public Future<Channel> acquire(Promise<Channel> promise) {
+		Objects.requireNonNull(promise, "promise");
+		if (closed) {
+			promise.tryFailure(new IllegalStateException("ChannelPool was closed"));
+		}
+		else if (tryReserve()) {
+			acquireReserved(promise);
+		}
+		else {
+			offerPending(promise);
+		}
+		return promise;
+	}
+
+	@Override
+	public Future<Void> release(Channel channel) {
+		Objects.requireNonNull(channel, "channel");
+		Throwable cause = doRelease(channel);
+		return cause == null ? channel.newSucceededFuture() : channel.newFailedFuture(cause);
+	}
+
+	@Override
+	public Future<Void> release(Channel channel, Promise<Void> promise) {
+		Objects.requireNonNull(channel, "channel");
+		Objects.requireNonNull(promise, "promise");
+		Throwable cause = doRelease(channel);
+		if (cause == null) {
+			promise.trySuccess(null);
+		}
+		else {
+			promise.tryFailure(cause);
+		}
+		return promise;
+	}
+
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (evictionTask != null) {
+			evictionTask.cancel(false);
+		}
+		if (healthCheckTask != null) {
+			healthCheckTask.cancel(false);
+		}
+		drain();
+		Channel ch;
+		for (IdleChannels idle : idleChannels) {
+			while ((ch = idle.pollFirst()) != null) {
+				ch.close();
+			}
+		}
+	}
+
+	/**
+	 * @return the number of channels currently leased or being connected
+	 */
+	int acquiredSize() {
+		return acquired;
+	}
+
+	/**
+	 * @return the number of channels that can currently be leased at once
+	 */
+	int maxConnections() {
+		return adaptiveLimit != null ? adaptiveLimit.limit() : maxConnections;
+	}
+
+	/**
+	 * @return the number of acquirers waiting for a permit
+	 */
+	int pendingSize() {
+		return pending;
+	}
+
+	/**
+	 * @return the number of idle channels
+	 */
+	int idleSize() {
+		int size = 0;
+		for (IdleChannels idle : idleChannels) {
+			size += idle.size();
+		}
+		return size;
+	}
+
+	void acquireReserved(Promise<Channel> promise) {
+		int loop = currentLoop();
+		Channel ch = pollHealthy(loop);
+		if (ch != null) {
+			if (!promise.trySuccess(ch)) {
+				doRelease(ch);
+			}
+		}
+		else {
+			connect(promise, loop);
+		}
+	}
+
+	/**
+	 * Return the index of the idle partition owned by the calling event loop or -1
+	 * if the caller is not one of the pool event loops.
+	 *
+	 * @return the index of the calling event loop partition or -1
+	 */
+	int currentLoop() {
+		IdleChannels[] idleChannels = this.idleChannels;
+		if (idleChannels.length == 1) {
+			return 0;
+		}
+		for (int i = 0; i < idleChannels.length; i++) {
+			if (idleChannels[i].loop.inEventLoop()) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	IdleChannels idleChannels(Channel ch) {
+		IdleChannels[] idleChannels = this.idleChannels;
+		if (idleChannels.length != 1) {
+			EventLoop loop = ch.eventLoop();
+			for (IdleChannels idle : idleChannels) {
+				if (idle.loop == loop) {
+					return idle;
+				}
+			}
+		}
+		return idleChannels[0];
+	}
+
+	Future<Channel> connect(@Nullable Promise<Channel> promise, int loop) {
+		ChannelFuture f;
+		if (loop >= 0 && idleChannels[loop].loop != null) {
+			f = bootstrap.clone(idleChannels[loop].loop)
+			             .connect();
+		}
+		else {
+			f = bootstrap.connect();
+		}
+		Promise<Channel> p = promise != null ? promise : f.channel()
+		                                                  .eventLoop()
+		                                                  .newPromise();
+		if (f.isDone()) {
+			onConnect(f, p);
+		}
+		else {
+			f.addListener(future -> onConnect((ChannelFuture) future, p));
+		}
+		return p;
+	}
+
+	void onConnect(ChannelFuture f, Promise<Channel> promise) {
+		Channel ch = f.channel();
+		if (!f.isSuccess()) {
+			if (adaptiveLimit != null) {
+				adaptiveLimit.onDrop();
+			}
+			releasePermit();
+			promise.tryFailure(f.cause());
+			return;
+		}
+		if (closed) {
+			ch.close();
+			releasePermit();
+			promise.tryFailure(new IllegalStateException("ChannelPool was closed"));
+			return;
+		}
+		PooledChannel pooledChannel = new PooledChannel(ch);
+		if (adaptiveLimit != null) {
+			pooledChannel.acquiredNanos = System.nanoTime();
+		}
+		ch.attr(POOLED_CHANNEL)
+		  .set(pooledChannel);
+		ch.attr(POOL_KEY)
+		  .set(this);
+		try {
+			handler.channelAcquired(ch);
+		}
+		catch (Exception e) {
+			ch.attr(POOL_KEY)
+			  .set(null);
+			ch.close();
+			releasePermit();
+			promise.tryFailure(e);
+			return;
+		}
+		if (!promise.trySuccess(ch)) {
+			doRelease(ch);
+		}
+	}
+
+	@Nullable
+	Channel pollHealthy(int loop) {
+		Channel ch;
+		while ((ch = pollIdle(loop)) != null) {
+			if (isExpired(ch)) {
+				if (log.isDebugEnabled()) {
+					log.debug(format(ch, "Discarding expired idle channel"));
+				}
+			}
+			else if (isHealthy(ch)) {
+				if (adaptiveLimit != null) {
+					PooledChannel pooledChannel = ch.attr(POOLED_CHANNEL)
+					                                .get();
+					if (pooledChannel != null) {
+						pooledChannel.acquiredNanos = System.nanoTime();
+					}
+				}
+				ch.attr(POOL_KEY)
+				  .set(this);
+				try {
+					handler.channelAcquired(ch);
+					return ch;
+				}
+				catch (Exception e) {
+					ch.attr(POOL_KEY)
+					  .set(null);
+					log.error(format(ch, "Failed to acquire idle channel"), e);
+				}
+			}
+			else if (log.isDebugEnabled()) {
+				log.debug(format(ch, "Discarding unhealthy idle channel"));
+			}
+			ch.close();
+		}
+		return null;
+	}
+
+	/**
+	 * Poll the most recently, or least recently when FIFO, released channel of the
+	 * given event loop partition, falling back to stealing from the other partitions.
+	 *
+	 * @param loop the preferred partition or -1
+	 *
+	 * @return an idle channel or null
+	 */
+	@Nullable
+	Channel pollIdle(int loop) {
+		IdleChannels[] idleChannels = this.idleChannels;
+		int n = idleChannels.length;
+		Channel ch;
+		if (loop >= 0) {
+			ch = poll(idleChannels[loop]);
+			if (ch != null || n == 1) {
+				return ch;
+			}
+		}
+		else {
+			loop = ThreadLocalRandom.current()
+			                        .nextInt(n);
+		}
+		for (int i = 1; i <= n; i++) {
+			ch = poll(idleChannels[(loop + i) % n]);
+			if (ch != null) {
+				return ch;
+			}
+		}
+		return null;
+	}
+
+	@Nullable
+	Channel poll(IdleChannels idle) {
+		return lifo ? idle.pollLast() : idle.pollFirst();
+	}
+
+	/**
+	 * Check the channel against the configured max idle time and max life time.
+	 *
+	 * @param ch the channel to check
+	 *
+	 * @return true if the channel should be closed
+	 */
+	boolean isExpired(Channel ch) {
+		if (maxIdleTimeNanos <= 0 && maxLifeTimeNanos <= 0) {
+			return false;
+		}
+		PooledChannel pooledChannel = ch.attr(POOLED_CHANNEL)
+		                                .get();
+		if (pooledChannel == null) {
+			return false;
+		}
+		long now = System.nanoTime();
+		return (maxIdleTimeNanos > 0 && now - pooledChannel.releasedNanos >= maxIdleTimeNanos) ||
+				(maxLifeTimeNanos > 0 && now - pooledChannel.createdNanos >= maxLifeTimeNanos);
+	}
+
+	/**
+	 * Close the idle channels that exceeded their max idle time or max life time,
+	 * leased channels are checked when released.
+	 */
+	void evict() {
+		for (IdleChannels idle : idleChannels) {
+			for (Channel ch : idle) {
+				if (isExpired(ch) && idle.remove(ch)) {
+					if (log.isDebugEnabled()) {
+						log.debug(format(ch, "Evicting expired idle channel"));
+					}
+					ch.close();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Probe the channels idle for longer than the health check interval with the
+	 * background health checker, off the acquire path.
+	 */
+	void checkIdle() {
+		long now = System.nanoTime();
+		for (IdleChannels idle : idleChannels) {
+			for (Channel ch : idle) {
+				PooledChannel pooledChannel = ch.attr(POOLED_CHANNEL)
+				                                .get();
+				if (pooledChannel != null &&
+						now - pooledChannel.releasedNanos >= healthCheckIntervalNanos &&
+						idle.remove(ch)) {
+					new HealthProbe(ch, idle).start();
+				}
+			}
+		}
+	}
+
+	boolean isHealthy(Channel ch) {
+		Future<Boolean> f = healthChecker.isHealthy(ch);
+		if (f.isDone()) {
+			return f.isSuccess() && Boolean.TRUE.equals(f.getNow());
+		}
+		return ch.isActive();
+	}
+
+	@Nullable
+	Throwable doRelease(Channel channel) {
+		if (channel.attr(POOL_KEY)
+		           .getAndSet(null) != this) {
+			channel.close();
+			return new IllegalArgumentException("Channel " + channel + " was not " +
+					"acquired from this ChannelPool");
+		}
+		if (closed) {
+			channel.close();
+			releasePermit();
+			return new IllegalStateException("ChannelPool was closed");
+		}
+		try {
+			handler.channelReleased(channel);
+		}
+		catch (Exception e) {
+			channel.close();
+			releasePermit();
+			return e;
+		}
+		PooledChannel pooledChannel = channel.attr(POOLED_CHANNEL)
+		                                     .get();
+		if (pooledChannel != null) {
+			pooledChannel.releasedNanos = System.nanoTime();
+			if (adaptiveLimit != null) {
+				adaptiveLimit.onSample(pooledChannel.releasedNanos - pooledChannel.acquiredNanos,
+						acquired);
+			}
+		}
+		if (isExpired(channel)) {
+			if (log.isDebugEnabled()) {
+				log.debug(format(channel, "Closing channel released after its max life time"));
+			}
+			channel.close();
+		}
+		else if (channel.isActive()) {
+			IdleChannels idle = idleChannels(channel);
+			idle.offerLast(channel);
+			if (closed && idle.remove(channel)) {
+				channel.close();
+			}
+		}
+		releasePermit();
+		return null;
+	}
+
+	Future<Channel> lease(Channel ch) {
+		PooledChannel pooledChannel = ch.attr(POOLED_CHANNEL)
+		                                .get();
+		if (pooledChannel != null) {
+			return pooledChannel.lease;
+		}
+		return ch.eventLoop()
+		         .newSucceededFuture(ch);
+	}
+
+	boolean tryReserve() {
+		for (;;) {
+			int n = acquired;
+			if (n >= maxConnections()) {
+				return false;
+			}
+			if (ACQUIRED.compareAndSet(this, n, n + 1)) {
+				return true;
+			}
+		}
+	}
+
+	void releasePermit() {
+		ACQUIRED.decrementAndGet(this);
+		drain();
+	}
+
+	boolean tryReservePending() {
+		if (maxPendingAcquires < 0) {
+			PENDING.incrementAndGet(this);
+			return true;
+		}
+		for (;;) {
+			int n = pending;
+			if (n >= maxPendingAcquires) {
+				return false;
+			}
+			if (PENDING.compareAndSet(this, n, n + 1)) {
+				return true;
+			}
+		}
+	}
+
+	void offerPending(Promise<Channel> promise) {
+		if (!tryReservePending()) {
+			promise.tryFailure(new PoolAcquirePendingLimitException(maxPendingAcquires));
+			return;
+		}
+		PendingAcquire pa = new PendingAcquire(promise);
+		if (acquireTimeout > 0) {
+			pa.timeoutTask = bootstrap.config()
+			                          .group()
+			                          .next()
+			                          .schedule(pa, acquireTimeout, TimeUnit.MILLISECONDS);
+		}
+		promise.addListener(pa);
+		pendingAcquires.offer(pa);
+		drain();
+	}
+
+	/**
+	 * Hand permits over to pending acquirers, only one thread at a time consumes
+	 * {@link #pendingAcquires}.
+	 */
+	void drain() {
+		if (WIP.getAndIncrement(this) != 0) {
+			return;
+		}
+		int missed = 1;
+		for (;;) {
+			PendingAcquire pa;
+			if (closed) {
+				while ((pa = pendingAcquires.poll()) != null) {
+					pa.promise.tryFailure(new IllegalStateException("ChannelPool was closed"));
+				}
+			}
+			else {
+				// acquirers cancelled or timed out while queued are dropped even when
+				// no permit is available, so they do not pile up under saturation
+				while ((pa = pendingAcquires.peek()) != null && pa.get()) {
+					pendingAcquires.poll();
+				}
+				while (pending != 0 && tryReserve()) {
+					pa = pendingAcquires.poll();
+					if (pa == null) {
+						ACQUIRED.decrementAndGet(this);
+						break;
+					}
+					if (pa.claim()) {
+						acquireReserved(pa.promise);
+					}
+					else {
+						ACQUIRED.decrementAndGet(this);
+					}
+				}
+			}
+			missed = WIP.addAndGet(this, -missed);
+			if (missed == 0) {
+				break;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "LockFreeChannelPool{" +
+				"acquired=" + acquired +
+				", idle=" + idleSize() +
+				", pending=" + pending +
+				", maxConnections=" + maxConnections() +
+				'}';
+	}
+
+	/**
+	 * Per channel pool state, allocated once when the channel is connected.
+	 */
+	static final class PooledChannel {
+
+		final Future<Channel> lease;
+		final long            createdNanos;
+
+		volatile long releasedNanos;
+		volatile long acquiredNanos;
+
+		PooledChannel(Channel ch) {
+			this.lease = ch.eventLoop()
+			               .newSucceededFuture(ch);
+			this.createdNanos = System.nanoTime();
+			this.releasedNanos = createdNanos;
+		}
+	}
+
+	static final class IdleChannels extends ConcurrentLinkedDeque<Channel> {
+
+		final EventLoop loop;
+
+		IdleChannels(@Nullable EventLoop loop) {
+			this.loop = loop;
+		}
+	}
+
+	/**
+	 * An idle channel being checked by the background health checker, the first of
+	 * the probe completion and its timeout decides whether the channel goes back to
+	 * the idle stack or is closed.
+	 */
+	final class HealthProbe extends AtomicBoolean
+			implements Runnable, GenericFutureListener<Future<Boolean>> {
+
+		final Channel      ch;
+		final IdleChannels idle;
+
+		ScheduledFuture<?> timeoutTask;
+
+		HealthProbe(Channel ch, IdleChannels idle) {
+			this.ch = ch;
+			this.idle = idle;
+		}
+
+		void start() {
+			Future<Boolean> f;
+			try {
+				f = backgroundHealthChecker.isHealthy(ch);
+			}
+			catch (Throwable t) {
+				log.error(format(ch, "Failed to check idle channel health"), t);
+				complete(false);
+				return;
+			}
+			if (!f.isDone()) {
+				timeoutTask = ch.eventLoop()
+				                .schedule(this, healthCheckIntervalNanos, TimeUnit.NANOSECONDS);
+			}
+			f.addListener(this);
+		}
+
+		@Override
+		public void operationComplete(Future<Boolean> future) {
+			if (timeoutTask != null) {
+				timeoutTask.cancel(false);
+			}
+			complete(future.isSuccess() && Boolean.TRUE.equals(future.getNow()));
+		}
+
+		@Override
+		public void run() {
+			if (log.isDebugEnabled()) {
+				log.debug(format(ch, "Idle channel health check timed out"));
+			}
+			complete(false);
+		}
+
+		void complete(boolean healthy) {
+			if (!compareAndSet(false, true)) {
+				return;
+			}
+			if (healthy && !closed && ch.isActive()) {
+				// back with the coldest channels, probing must not make it hot
+				idle.offerFirst(ch);
+				if (closed && idle.remove(ch)) {
+					ch.close();
+				}
+				return;
+			}
+			if (log.isDebugEnabled()) {
+				log.debug(format(ch, "Discarding idle channel failing its health check"));
+			}
+			ch.close();
+		}
+	}
+
+	final class PendingAcquire extends AtomicBoolean
+			implements Runnable, GenericFutureListener<Future<Channel>> {
+
+		final Promise<Channel> promise;
+
+		ScheduledFuture<?> timeoutTask;
+
+		PendingAcquire(Promise<Channel> promise) {
+			this.promise = promise;
+		}
+
+		boolean claim() {
+			if (compareAndSet(false, true)) {
+				PENDING.decrementAndGet(LockFreeChannelPool.this);
+				if (timeoutTask != null) {
+					timeoutTask.cancel(false);
+				}
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		public void run() {
+			promise.tryFailure(new TimeoutException("Acquire operation took longer " +
+					"than " + acquireTimeout + " ms"));
+		}
+
+		@Override
+		public void operationComplete(Future<Channel> future) {
+			// cancelled or timed out while still queued
+			if (claim()) {
+				drain();
+			}
+		}
+	}
+}
@@ -93,6 +93,51 @@ public interface LoopResources extends Disposable {
 		return new DefaultLoopResources(prefix, workerCount, daemon);
 	}
 
+	/**
+	 * Create a simple {@link LoopResources} to provide automatically for {@link
+	 * EventLoopGroup} and {@link Channel} factories, reporting the activity of each
+	 * event loop to the given {@link EventLoopMetricsRecorder}
+	 *
+	 * @param prefix the event loop thread name prefix
+	 * @param workerCount number of worker threads
+	 * @param daemon should the thread be released on jvm shutdown
+	 * @param metricsRecorder the recorder receiving the event loop metrics
+	 *
+	 * @return a new {@link LoopResources} to provide automatically for {@link
+	 * EventLoopGroup} and {@link Channel} factories
+	 * @since 0.8.6
+	 */
+	static LoopResources create(String prefix, int workerCount, boolean daemon,
+			EventLoopMetricsRecorder metricsRecorder) {
+		if (workerCount < 1) {
+			throw new IllegalArgumentException("Must provide a strictly positive " + "worker threads number, " + "was: " + workerCount);
+		}
+		Objects.requireNonNull(metricsRecorder, "metricsRecorder");
+		return new DefaultLoopResources(prefix, -1, workerCount, daemon, metricsRecorder, false);
+	}
+
+	/**
+	 * Create a {@link LoopResources} whose {@link EventLoopGroup} register each new
+	 * {@link Channel} on the event loop with the fewest registered channels, the lowest
+	 * recent scheduling delay breaking ties, instead of a round-robin assignment. This
+	 * keeps long-lived connections such as websockets or streams from piling up on the
+	 * same event loops.
+	 *
+	 * @param prefix the event loop thread name prefix
+	 * @param workerCount number of worker threads
+	 * @param daemon should the thread be released on jvm shutdown
+	 *
+	 * @return a new {@link LoopResources} assigning channels to the least loaded event
+	 * loop
+	 * @since 0.8.6
+	 */
+	static LoopResources leastLoaded(String prefix, int workerCount, boolean daemon) {
+		if (workerCount < 1) {
+			throw new IllegalArgumentException("Must provide a strictly positive " + "worker threads number, " + "was: " + workerCount);
+		}
+		return new DefaultLoopResources(prefix, -1, workerCount, daemon, null, true);
+	}
+
 	/**
 	 * Create a simple {@link LoopResources} to provide automatically for {@link
 	 * EventLoopGroup} and {@link Channel} factories
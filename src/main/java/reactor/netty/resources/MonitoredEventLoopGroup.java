@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.resources;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.DefaultChannelPromise;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Track the channels registered on each event loop of the decorated group and sample
+ * the event loops periodically, reporting to an {@link EventLoopMetricsRecorder}.
+ * When least-loaded selection is enabled, {@link #next()} picks the event loop with the
+ * fewest registered channels, the lowest recent scheduling delay breaking ties,
+ * instead of the round-robin of the decorated group.
+ */
+final class MonitoredEventLoopGroup implements EventLoopGroup, Supplier<EventLoopGroup> {
+
+	static final long SAMPLE_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+
+	final EventLoopGroup                    eventLoopGroup;
+	final Map<EventExecutor, LoopMonitor>   loops;
+	final LoopMonitor[]                     monitors;
+	final boolean                           leastLoaded;
+	@Nullable
+	final EventLoopMetricsRecorder          metricsRecorder;
+	final AtomicBoolean                     cleaned = new AtomicBoolean();
+
+	MonitoredEventLoopGroup(EventLoopGroup eventLoopGroup, String name,
+			@Nullable EventLoopMetricsRecorder metricsRecorder, boolean leastLoaded) {
+		this.eventLoopGroup = eventLoopGroup;
+		this.metricsRecorder = metricsRecorder;
+		this.leastLoaded = leastLoaded;
+		this.loops = new IdentityHashMap<>();
+		int index = 0;
+		for (EventExecutor ex : eventLoopGroup) {
+			LoopMonitor monitor = new LoopMonitor(name + "-" + (++index), ex);
+			loops.put(ex, monitor);
+			if (metricsRecorder != null) {
+				metricsRecorder.registerEventLoop(monitor.name, monitor);
+			}
+			if (metricsRecorder != null || leastLoaded) {
+				monitor.start();
+			}
+		}
+		this.monitors = loops.values().toArray(new LoopMonitor[0]);
+	}
+
+	@Override
+	public EventLoop next() {
+		if (leastLoaded && monitors.length > 1) {
+			return leastLoaded();
+		}
+		return eventLoopGroup.next();
+	}
+
+	/**
+	 * Scan the event loops from a random position so that equally loaded loops share
+	 * the registrations.
+	 */
+	EventLoop leastLoaded() {
+		LoopMonitor[] monitors = this.monitors;
+		int n = monitors.length;
+		int start = ThreadLocalRandom.current().nextInt(n);
+		LoopMonitor best = monitors[start];
+		int bestChannels = best.channels.get();
+		for (int i = 1; i < n; i++) {
+			LoopMonitor candidate = monitors[(start + i) % n];
+			int channels = candidate.channels.get();
+			if (channels < bestChannels ||
+					(channels == bestChannels && candidate.delayNanos < best.delayNanos)) {
+				best = candidate;
+				bestChannels = channels;
+			}
+		}
+		return (EventLoop) best.executor;
+	}
+
+	@Override
+	public ChannelFuture register(Channel channel) {
+		return register(next(), channel);
+	}
+
+	@Override
+	public ChannelFuture register(ChannelPromise promise) {
+		return register(next(), promise);
+	}
+
+	@Deprecated
+	@Override
+	public ChannelFuture register(Channel channel, ChannelPromise promise) {
+		return register(next(), promise);
+	}
+
+	ChannelFuture register(EventLoop loop, Channel channel) {
+		return register(loop, new DefaultChannelPromise(channel, loop));
+	}
+
+	/**
+	 * Register on the given event loop, counting the channel until it is closed.
+	 */
+	ChannelFuture register(EventLoop loop, ChannelPromise promise) {
+		LoopMonitor monitor = loops.get(loop);
+		if (monitor != null) {
+			monitor.channels.incrementAndGet();
+			promise.channel()
+			       .closeFuture()
+			       .addListener(f -> monitor.channels.decrementAndGet());
+		}
+		return loop.register(promise);
+	}
+
+	@Override
+	public boolean isShuttingDown() {
+		return eventLoopGroup.isShuttingDown();
+	}
+
+	@Override
+	public io.netty.util.concurrent.Future<?> shutdownGracefully() {
+		clean();
+		return eventLoopGroup.shutdownGracefully();
+	}
+
+	@Override
+	public io.netty.util.concurrent.Future<?> shutdownGracefully(long quietPeriod,
+			long timeout,
+			TimeUnit unit) {
+		clean();
+		return eventLoopGroup.shutdownGracefully(quietPeriod, timeout, unit);
+	}
+
+	void clean() {
+		if (cleaned.compareAndSet(false, true)) {
+			for (LoopMonitor monitor : loops.values()) {
+				monitor.stop();
+				if (metricsRecorder != null) {
+					metricsRecorder.unregisterEventLoop(monitor.name, monitor);
+				}
+			}
+		}
+	}
+
+	@Override
+	public io.netty.util.concurrent.Future<?> terminationFuture() {
+		return eventLoopGroup.terminationFuture();
+	}
+
+	@Deprecated
+	@Override
+	public void shutdown() {
+		shutdownGracefully();
+	}
+
+	@Override
+	@Deprecated
+	public List<Runnable> shutdownNow() {
+		clean();
+		return eventLoopGroup.shutdownNow();
+	}
+
+	@Override
+	public Iterator<EventExecutor> iterator() {
+		return eventLoopGroup.iterator();
+	}
+
+	@Override
+	public io.netty.util.concurrent.Future<?> submit(Runnable task) {
+		return next().submit(task);
+	}
+
+	@Override
+	public <T> io.netty.util.concurrent.Future<T> submit(Runnable task, T result) {
+		return next().submit(task, result);
+	}
+
+	@Override
+	public <T> io.netty.util.concurrent.Future<T> submit(Callable<T> task) {
+		return next().submit(task);
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		return next().schedule(command, delay, unit);
+	}
+
+	@Override
+	public <V> ScheduledFuture<V> schedule(Callable<V> callable,
+			long delay,
+			TimeUnit unit) {
+		return next().schedule(callable, delay, unit);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command,
+			long initialDelay,
+			long period,
+			TimeUnit unit) {
+		return next().scheduleAtFixedRate(command, initialDelay, period, unit);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command,
+			long initialDelay,
+			long delay,
+			TimeUnit unit) {
+		return next().scheduleWithFixedDelay(command, initialDelay, delay, unit);
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return eventLoopGroup.isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return eventLoopGroup.isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit)
+			throws InterruptedException {
+		return eventLoopGroup.awaitTermination(timeout, unit);
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks)
+			throws InterruptedException {
+		return next().invokeAll(tasks);
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks,
+			long timeout,
+			TimeUnit unit) throws InterruptedException {
+		return next().invokeAll(tasks, timeout, unit);
+	}
+
+	@Override
+	public <T> T invokeAny(Collection<? extends Callable<T>> tasks)
+			throws InterruptedException, ExecutionException {
+		return next().invokeAny(tasks);
+	}
+
+	@Override
+	public <T> T invokeAny(Collection<? extends Callable<T>> tasks,
+			long timeout,
+			TimeUnit unit)
+			throws InterruptedException, ExecutionException, TimeoutException {
+		return next().invokeAny(tasks, timeout, unit);
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		next().execute(command);
+	}
+
+	@Override
+	public EventLoopGroup get() {
+		return eventLoopGroup;
+	}
+
+	@Override
+	public String toString() {
+		return "MonitoredEventLoopGroup {" +
+				"loops=" + loops.values() +
+				'}';
+	}
+
+	/**
+	 * Per event loop counters and periodic sampling task, measuring how late the task
+	 * runs compared to its schedule.
+	 */
+	final class LoopMonitor implements EventLoopMetrics, Runnable {
+
+		final String          name;
+		final EventExecutor   executor;
+		final AtomicInteger   channels = new AtomicInteger();
+
+		ScheduledFuture<?> sampler;
+		long               dueNanos;
+		volatile long      delayNanos;
+
+		LoopMonitor(String name, EventExecutor executor) {
+			this.name = name;
+			this.executor = executor;
+		}
+
+		void start() {
+			dueNanos = System.nanoTime() + SAMPLE_INTERVAL_NANOS;
+			sampler = executor.scheduleAtFixedRate(this, SAMPLE_INTERVAL_NANOS,
+					SAMPLE_INTERVAL_NANOS, TimeUnit.NANOSECONDS);
+		}
+
+		void stop() {
+			ScheduledFuture<?> sampler = this.sampler;
+			if (sampler != null) {
+				sampler.cancel(false);
+			}
+		}
+
+		@Override
+		public void run() {
+			long now = System.nanoTime();
+			long delay = Math.max(0L, now - dueNanos);
+			// a late fixed rate task is caught up, the next one is due one period later
+			dueNanos += SAMPLE_INTERVAL_NANOS;
+			delayNanos = delay;
+			EventLoopMetricsRecorder metricsRecorder = MonitoredEventLoopGroup.this.metricsRecorder;
+			if (metricsRecorder != null) {
+				metricsRecorder.recordTaskSchedulingDelay(name, Duration.ofNanos(delay));
+			}
+		}
+
+		@Override
+		public int pendingTasks() {
+			if (executor instanceof SingleThreadEventExecutor) {
+				return ((SingleThreadEventExecutor) executor).pendingTasks();
+			}
+			return -1;
+		}
+
+		@Override
+		public int registeredChannels() {
+			return channels.get();
+		}
+
+		@Override
+		public String toString() {
+			return name + "{channels=" + channels.get() + ", pendingTasks=" + pendingTasks() + '}';
+		}
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.resources;
+
+/**
+ * An exception signalling that an acquire was rejected without waiting because the
+ * pool has no connection available and its pending acquire queue is full.
+ *
+ * @since 0.8.6
+ * @see ConnectionProvider.Builder#maxPendingAcquires(int)
+ */
+public final class PoolAcquirePendingLimitException extends RuntimeException {
+
+	final int maxPendingAcquires;
+
+	PoolAcquirePendingLimitException(int maxPendingAcquires) {
+		super("Pending acquire queue has reached its maximum size of " + maxPendingAcquires);
+		this.maxPendingAcquires = maxPendingAcquires;
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
+
+	/**
+	 * Return the configured maximum number of pending acquires
+	 *
+	 * @return the configured maximum number of pending acquires
+	 */
+	public int maxPendingAcquires() {
+		return maxPendingAcquires;
+	}
+}
@@ -20,14 +20,15 @@ import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
-import java.util.List;
-import java.util.Map;
+import java.time.Duration;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
 import io.netty.bootstrap.Bootstrap;
@@ -37,6 +38,7 @@ import io.netty.channel.EventLoopGroup;
 import io.netty.channel.pool.ChannelHealthChecker;
 import io.netty.channel.pool.ChannelPool;
 import io.netty.channel.pool.ChannelPoolHandler;
+import io.netty.handler.ssl.SslHandler;
 import io.netty.util.AttributeKey;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
@@ -70,44 +72,103 @@ final class PooledConnectionProvider implements ConnectionProvider {
 				ChannelHealthChecker checker);
 	}
 
-	final ConcurrentMap<PoolKey, Pool> channelPools;
-	final String                       name;
-	final PoolFactory                  poolFactory;
-	final int                          maxConnections;
+	final ConcurrentMap<PoolKey, Pool>                channelPools;
+	final ConcurrentMap<SocketAddress, Set<PoolKey>> poolKeys;
+	final String                                      name;
+	final PoolFactory                                 poolFactory;
+	final int                                         maxConnections;
+	final ConnectionPoolMetricsRecorder               recorder;
+	final boolean                                     pipelineEquivalence;
 
 	PooledConnectionProvider(String name, PoolFactory poolFactory) {
-		this.name = name;
-		this.poolFactory = poolFactory;
-		this.channelPools = PlatformDependent.newConcurrentHashMap();
-		this.maxConnections = -1;
+		this(name, poolFactory, -1);
 	}
 
 	PooledConnectionProvider(String name, PoolFactory poolFactory, int maxConnections) {
+		this(name, poolFactory, maxConnections, null);
+	}
+
+	PooledConnectionProvider(String name,
+			PoolFactory poolFactory,
+			int maxConnections,
+			@Nullable ConnectionPoolMetricsRecorder recorder) {
+		this(name, poolFactory, maxConnections, recorder, false);
+	}
+
+	PooledConnectionProvider(String name,
+			PoolFactory poolFactory,
+			int maxConnections,
+			@Nullable ConnectionPoolMetricsRecorder recorder,
+			boolean pipelineEquivalence) {
 		this.name = name;
 		this.poolFactory = poolFactory;
 		this.channelPools = PlatformDependent.newConcurrentHashMap();
+		this.poolKeys = PlatformDependent.newConcurrentHashMap();
 		this.maxConnections = maxConnections;
+		this.recorder = recorder;
+		this.pipelineEquivalence = pipelineEquivalence;
 	}
 
 	@Override
 	public void disposeWhen(@NonNull SocketAddress address) {
-		List<Map.Entry<PoolKey, Pool>> toDispose;
-
-		toDispose = channelPools.entrySet()
-		                        .stream()
-		                        .filter(p -> compareAddresses(p.getKey().holder, address))
-		                        .collect(Collectors.toList());
+		if (isAnyLocalAddress(address)) {
+			// a wildcard address matches every pooled address with the same port,
+			// scan the indexed addresses rather than every pool
+			for (SocketAddress holder : poolKeys.keySet()) {
+				if (compareAddresses(holder, address)) {
+					disposeKeys(poolKeys.get(holder));
+				}
+			}
+		}
+		else {
+			disposeKeys(poolKeys.get(address));
+		}
+	}
 
-		toDispose.forEach(e -> {
-			if (channelPools.remove(e.getKey(), e.getValue())) {
+	void disposeKeys(@Nullable Set<PoolKey> keys) {
+		if (keys == null) {
+			return;
+		}
+		for (PoolKey key : keys) {
+			Pool pool = channelPools.remove(key);
+			if (pool != null) {
+				unindex(key);
 				if(log.isDebugEnabled()){
-					log.debug("Disposing pool for {}", e.getKey().fqdn);
+					log.debug("Disposing pool for {}", key.fqdn);
 				}
-				e.getValue().pool.close();
+				pool.close();
+			}
+		}
+	}
+
+	void index(PoolKey key) {
+		poolKeys.compute(key.holder, (holder, keys) -> {
+			if (keys == null) {
+				keys = ConcurrentHashMap.newKeySet();
+			}
+			keys.add(key);
+			return keys;
+		});
+	}
+
+	void unindex(PoolKey key) {
+		poolKeys.computeIfPresent(key.holder, (holder, keys) -> {
+			// a pool may have been created again for that key meanwhile
+			if (!channelPools.containsKey(key)) {
+				keys.remove(key);
 			}
+			return keys.isEmpty() ? null : keys;
 		});
 	}
 
+	static boolean isAnyLocalAddress(SocketAddress address) {
+		if (address instanceof InetSocketAddress) {
+			InetAddress inetAddress = ((InetSocketAddress) address).getAddress();
+			return inetAddress != null && inetAddress.isAnyLocalAddress();
+		}
+		return false;
+	}
+
 	private boolean compareAddresses(SocketAddress origin, SocketAddress target) {
 		if (origin.equals(target)) {
 			return true;
@@ -134,33 +195,79 @@ final class PooledConnectionProvider implements ConnectionProvider {
 			ConnectionObserver obs = BootstrapHandlers.connectionObserver(bootstrap);
 
 			NewConnectionProvider.convertLazyRemoteAddress(bootstrap);
-			ChannelHandler handler = bootstrap.config().handler();
-			PoolKey holder = new PoolKey(bootstrap.config().remoteAddress(),
-					handler != null ? handler.hashCode() : -1);
 
-			Pool pool;
-			for (; ; ) {
-				pool = channelPools.get(holder);
-				if (pool != null) {
-					break;
-				}
-				if (log.isDebugEnabled()) {
-					log.debug("Creating new client pool [{}] for {}",
-							name,
-							bootstrap.config()
-							         .remoteAddress());
-				}
-				pool = new Pool(bootstrap, poolFactory, opsFactory);
-				if (channelPools.putIfAbsent(holder, pool) == null) {
-					break;
-				}
-				pool.close();
-			}
+			disposableAcquire(sink, obs, getOrCreatePool(bootstrap, opsFactory));
 
-			disposableAcquire(sink, obs, pool);
+		});
+
+	}
 
+	@Override
+	public Mono<Void> warmup(Bootstrap b, int connections) {
+		if (connections < 0) {
+			throw new IllegalArgumentException("Connections must be positive or zero");
+		}
+		return Mono.create(sink -> {
+			Bootstrap bootstrap = b.clone();
+
+			ChannelOperations.OnSetup opsFactory =
+					BootstrapHandlers.channelOperationFactory(bootstrap);
+
+			NewConnectionProvider.convertLazyRemoteAddress(bootstrap);
+			Pool pool = getOrCreatePool(bootstrap, opsFactory);
+
+			int target = maxConnections != -1 ? Math.min(connections, maxConnections) : connections;
+			if (pool.allocatedSize() >= target) {
+				sink.success();
+				return;
+			}
+			// idle channels are leased as well, so that the ones still missing are
+			// created instead of handing out the same idle channel again
+			int missing = target - pool.acquiredSize();
+			if (log.isDebugEnabled()) {
+				log.debug("Warming up client pool [{}] for {} with {} connections",
+						name,
+						bootstrap.config()
+						         .remoteAddress(),
+						missing);
+			}
+			new PoolWarmup(sink, pool, missing).start();
 		});
+	}
+
+	Pool getOrCreatePool(Bootstrap bootstrap, ChannelOperations.OnSetup opsFactory) {
+		ChannelHandler handler = bootstrap.config().handler();
+		int pipelineKey;
+		if (pipelineEquivalence) {
+			pipelineKey = BootstrapHandlers.pipelineKey(handler);
+		}
+		else {
+			pipelineKey = handler != null ? handler.hashCode() : -1;
+		}
+		PoolKey holder = new PoolKey(bootstrap.config().remoteAddress(), pipelineKey);
 
+		Pool pool;
+		for (; ; ) {
+			pool = channelPools.get(holder);
+			if (pool != null) {
+				return pool;
+			}
+			if (log.isDebugEnabled()) {
+				log.debug("Creating new client pool [{}] for {}",
+						name,
+						bootstrap.config()
+						         .remoteAddress());
+			}
+			pool = new Pool(bootstrap, poolFactory, opsFactory, name,
+					Integer.toHexString(pipelineKey), maxConnections, recorder);
+			if (channelPools.putIfAbsent(holder, pool) == null) {
+				index(holder);
+				// only the pool winning the race is exposed to the recorder
+				pool.register();
+				return pool;
+			}
+			pool.close();
+		}
 	}
 
 	@Override
@@ -175,6 +282,7 @@ final class PooledConnectionProvider implements ConnectionProvider {
 			for (PoolKey key : channelPools.keySet()) {
 				pool = channelPools.remove(key);
 				if (pool != null) {
+					unindex(key);
 					pool.close();
 				}
 			}
@@ -203,9 +311,10 @@ final class PooledConnectionProvider implements ConnectionProvider {
 
 	@SuppressWarnings("FutureReturnValueIgnored")
 	static void disposableAcquire(MonoSink<Connection> sink, ConnectionObserver obs, Pool pool) {
+		long start = pool.recorder != null ? System.nanoTime() : 0L;
 		Future<Channel> f = pool.acquire();
 		DisposableAcquire disposableAcquire =
-				new DisposableAcquire(sink, f, pool, obs);
+				new DisposableAcquire(sink, f, pool, obs, start);
 		// Returned value is deliberately ignored
 		f.addListener(disposableAcquire);
 		sink.onCancel(disposableAcquire);
@@ -216,25 +325,52 @@ final class PooledConnectionProvider implements ConnectionProvider {
 	static final AttributeKey<ConnectionObserver> OWNER =
 			AttributeKey.valueOf("connectionOwner");
 
-	final static class Pool extends AtomicBoolean
-			implements ChannelPoolHandler, ChannelPool, ChannelHealthChecker {
+	static final AttributeKey<Boolean> CLOSE_REGISTERED =
+			AttributeKey.valueOf("poolCloseRegistered");
 
-		final ChannelPool               pool;
-		final EventLoopGroup            defaultGroup;
-		final Bootstrap                 bootstrap;
-		final ChannelOperations.OnSetup opsFactory;
+	final static class Pool extends AtomicBoolean
+			implements ChannelPoolHandler, ChannelPool, ChannelHealthChecker,
+			           ConnectionPoolMetrics {
+
+		final ChannelPool                   pool;
+		final EventLoopGroup                defaultGroup;
+		final Bootstrap                     bootstrap;
+		final ChannelOperations.OnSetup     opsFactory;
+		final String                        poolName;
+		final String                        id;
+		final int                           maxConnections;
+		final ConnectionPoolMetricsRecorder recorder;
+		final SocketAddress                 remoteAddress;
 
 		final AtomicInteger activeConnections = new AtomicInteger();
 		final AtomicInteger inactiveConnections = new AtomicInteger();
 
+		boolean registered;
+
 		final Future<Boolean> HEALTHY;
 		final Future<Boolean> UNHEALTHY;
 
 		Pool(Bootstrap bootstrap,
 				PoolFactory provider,
 				ChannelOperations.OnSetup opsFactory) {
+			this(bootstrap, provider, opsFactory, "", "", -1, null);
+		}
+
+		Pool(Bootstrap bootstrap,
+				PoolFactory provider,
+				ChannelOperations.OnSetup opsFactory,
+				String poolName,
+				String id,
+				int maxConnections,
+				@Nullable ConnectionPoolMetricsRecorder recorder) {
 			this.bootstrap = bootstrap;
 			this.opsFactory = opsFactory;
+			this.poolName = poolName;
+			this.id = id;
+			this.maxConnections = maxConnections;
+			this.recorder = recorder;
+			this.remoteAddress = bootstrap.config()
+			                              .remoteAddress();
 			this.pool = provider.newPool(bootstrap, this, this);
 			this.defaultGroup = bootstrap.config()
 			                             .group();
@@ -244,6 +380,20 @@ final class PooledConnectionProvider implements ConnectionProvider {
 			                        .newSucceededFuture(false);
 		}
 
+		/**
+		 * Register this pool with the recorder unless it has already been closed.
+		 */
+		void register() {
+			if (recorder != null) {
+				synchronized (this) {
+					if (!get()) {
+						registered = true;
+						recorder.registerPool(poolName, remoteAddress, this);
+					}
+				}
+			}
+		}
+
 		@Override
 		public Future<Boolean> isHealthy(Channel channel) {
 			return channel.isActive() ? HEALTHY : UNHEALTHY;
@@ -251,8 +401,7 @@ final class PooledConnectionProvider implements ConnectionProvider {
 
 		@Override
 		public Future<Channel> acquire() {
-			return acquire(defaultGroup.next()
-			                           .newPromise());
+			return pool.acquire();
 		}
 
 		@Override
@@ -270,11 +419,78 @@ final class PooledConnectionProvider implements ConnectionProvider {
 			return pool.release(channel, promise);
 		}
 
+		/**
+		 * Release the channel and update the connection counters once it closes, at
+		 * most once per channel.
+		 */
+		void registerClose(Channel c) {
+			if (c.attr(CLOSE_REGISTERED)
+			     .setIfAbsent(Boolean.TRUE) != null) {
+				return;
+			}
+			if (log.isDebugEnabled()) {
+				log.debug(format(c, "Registering pool release on close event for channel"));
+			}
+			c.closeFuture()
+			 .addListener(ff -> {
+			     release(c);
+			     inactiveConnections.decrementAndGet();
+			     if (log.isDebugEnabled()) {
+			         log.debug(format(c, "Channel closed, now {} active connections and {} inactive connections"),
+			                 activeConnections, inactiveConnections);
+			     }
+			 });
+		}
+
 		@Override
 		public void close() {
 			if (compareAndSet(false, true)) {
 				pool.close();
+				if (recorder != null) {
+					synchronized (this) {
+						if (registered) {
+							registered = false;
+							recorder.unregisterPool(poolName, remoteAddress, this);
+						}
+					}
+				}
+			}
+		}
+
+		@Override
+		public String id() {
+			return id;
+		}
+
+		@Override
+		public int acquiredSize() {
+			if (pool instanceof LockFreeChannelPool) {
+				return ((LockFreeChannelPool) pool).acquiredSize();
+			}
+			return activeConnections.get();
+		}
+
+		@Override
+		public int idleSize() {
+			if (pool instanceof LockFreeChannelPool) {
+				return ((LockFreeChannelPool) pool).idleSize();
+			}
+			return inactiveConnections.get();
+		}
+
+		@Override
+		public int pendingAcquireSize() {
+			return pool instanceof LockFreeChannelPool ?
+					((LockFreeChannelPool) pool).pendingSize() : 0;
+		}
+
+		@Override
+		public int maxAllocatedSize() {
+			if (pool instanceof LockFreeChannelPool &&
+					((LockFreeChannelPool) pool).adaptiveLimit != null) {
+				return ((LockFreeChannelPool) pool).maxConnections();
 			}
+			return maxConnections;
 		}
 
 		@Override
@@ -312,6 +528,12 @@ final class PooledConnectionProvider implements ConnectionProvider {
 						activeConnections, inactiveConnections);
 			}
 
+			if (recorder != null) {
+				recorder.recordConnectionCreated(poolName, remoteAddress);
+				ch.closeFuture()
+				  .addListener(f -> recorder.recordConnectionClosed(poolName, remoteAddress));
+			}
+
 			PooledConnection pooledConnection = new PooledConnection(ch, this);
 
 			pooledConnection.bind();
@@ -467,15 +689,18 @@ final class PooledConnectionProvider implements ConnectionProvider {
 		final MonoSink<Connection> sink;
 		final Pool                 pool;
 		final ConnectionObserver   obs;
+		final long                 start;
 
 		DisposableAcquire(MonoSink<Connection> sink,
 				Future<Channel> future,
 				Pool pool,
-				ConnectionObserver obs) {
+				ConnectionObserver obs,
+				long start) {
 			this.f = future;
 			this.pool = pool;
 			this.sink = sink;
 			this.obs = obs;
+			this.start = start;
 		}
 
 		@Override
@@ -530,7 +755,7 @@ final class PooledConnectionProvider implements ConnectionProvider {
 				PendingConnectionObserver pending = (PendingConnectionObserver)current;
 				PendingConnectionObserver.Pending p;
 				current = null;
-				registerClose(c);
+				pool.registerClose(c);
 
 				while((p = pending.pendingQueue.poll()) != null) {
 					if (p.error != null) {
@@ -542,7 +767,7 @@ final class PooledConnectionProvider implements ConnectionProvider {
 				}
 			}
 			else if (current == null) {
-				registerClose(c);
+				pool.registerClose(c);
 			}
 
 
@@ -585,21 +810,6 @@ final class PooledConnectionProvider implements ConnectionProvider {
 			}
 		}
 
-		void registerClose(Channel c) {
-			if (log.isDebugEnabled()) {
-				log.debug(format(c, "Registering pool release on close event for channel"));
-			}
-			c.closeFuture()
-			 .addListener(ff -> {
-			     pool.release(c);
-			     pool.inactiveConnections.decrementAndGet();
-			     if (log.isDebugEnabled()) {
-			         log.debug(format(c, "Channel closed, now {} active connections and {} inactive connections"),
-			                 pool.activeConnections, pool.inactiveConnections);
-			     }
-			 });
-		}
-
 		@Override
 		public final void operationComplete(Future<Channel> f) throws Exception {
 			if (!f.isSuccess()) {
@@ -611,6 +821,9 @@ final class PooledConnectionProvider implements ConnectionProvider {
 					return;
 				}
 				if (f.cause() != null) {
+					if (pool.recorder != null && f.cause() instanceof TimeoutException) {
+						pool.recorder.recordAcquireTimeout(pool.poolName, pool.remoteAddress);
+					}
 					sink.error(f.cause());
 				}
 				else {
@@ -628,6 +841,11 @@ final class PooledConnectionProvider implements ConnectionProvider {
 					disposableAcquire(sink, obs, pool);
 					return;
 				}
+				if (pool.recorder != null) {
+					pool.recorder.recordAcquireTime(pool.poolName,
+							pool.remoteAddress,
+							Duration.ofNanos(System.nanoTime() - start));
+				}
 				if (c.eventLoop().inEventLoop()) {
 					run();
 				}
@@ -639,6 +857,93 @@ final class PooledConnectionProvider implements ConnectionProvider {
 		}
 	}
 
+	/**
+	 * Acquire a number of channels at once so that each of them is newly connected,
+	 * wait for a possible TLS handshake and hand them all back to the pool. The
+	 * connection events are queued by {@link PendingConnectionObserver} and replayed to
+	 * the first real acquirer, exactly like a channel that connected before its owner
+	 * was attached.
+	 */
+	final static class PoolWarmup implements GenericFutureListener<Future<Channel>> {
+
+		final MonoSink<Void>  sink;
+		final Pool            pool;
+		final int             connections;
+		final Queue<Channel>  acquired;
+		final AtomicInteger   remaining;
+
+		volatile Throwable error;
+
+		PoolWarmup(MonoSink<Void> sink, Pool pool, int connections) {
+			this.sink = sink;
+			this.pool = pool;
+			this.connections = connections;
+			this.acquired = Queues.<Channel>unboundedMultiproducer().get();
+			this.remaining = new AtomicInteger(connections);
+		}
+
+		@SuppressWarnings("FutureReturnValueIgnored")
+		void start() {
+			for (int i = 0; i < connections; i++) {
+				// Returned value is deliberately ignored
+				pool.acquire()
+				    .addListener(this);
+			}
+		}
+
+		@Override
+		public void operationComplete(Future<Channel> f) {
+			if (!f.isSuccess()) {
+				pool.inactiveConnections.decrementAndGet();
+				done(f.cause() != null ? f.cause() :
+						new IOException("error while warming up " + pool));
+				return;
+			}
+			Channel c = f.getNow();
+			pool.activeConnections.incrementAndGet();
+			pool.inactiveConnections.decrementAndGet();
+			// a warmed channel may close while idle, before its first acquirer
+			pool.registerClose(c);
+			acquired.offer(c);
+
+			SslHandler sslHandler = c.pipeline()
+			                         .get(SslHandler.class);
+			if (sslHandler != null && !sslHandler.handshakeFuture()
+			                                     .isDone()) {
+				sslHandler.handshakeFuture()
+				          .addListener(hf -> done(hf.cause()));
+				return;
+			}
+			done(null);
+		}
+
+		@SuppressWarnings("FutureReturnValueIgnored")
+		void done(@Nullable Throwable cause) {
+			if (cause != null && error == null) {
+				error = cause;
+			}
+			if (remaining.decrementAndGet() != 0) {
+				return;
+			}
+			Channel c;
+			while ((c = acquired.poll()) != null) {
+				// Returned value is deliberately ignored
+				pool.release(c);
+			}
+			if (log.isDebugEnabled()) {
+				log.debug("Warmed up client pool, now {} active connections and {} inactive connections",
+						pool.activeConnections, pool.inactiveConnections);
+			}
+			Throwable t = error;
+			if (t != null) {
+				sink.error(t);
+			}
+			else {
+				sink.success();
+			}
+		}
+	}
+
 	final static class PoolKey {
 
 		final SocketAddress holder;
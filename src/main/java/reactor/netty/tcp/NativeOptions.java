@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.tcp;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nullable;
+
+import io.netty.bootstrap.AbstractBootstrap;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.util.AttributeKey;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+/**
+ * Typed options of the native epoll transport. They are applied only when the
+ * connection runs on the epoll transport, a warning is logged and they are ignored
+ * otherwise.
+ *
+ * @since 0.8.6
+ */
+public final class NativeOptions {
+
+	/**
+	 * Create a new {@link NativeOptions} builder.
+	 *
+	 * @return a new {@link NativeOptions} builder
+	 */
+	public static Builder builder() {
+		return new Build();
+	}
+
+	static final Logger log = Loggers.getLogger(NativeOptions.class);
+
+	static final AttributeKey<NativeOptions> NATIVE_OPTIONS = AttributeKey.newInstance("nativeOptions");
+
+	final Integer busyPollMicros;
+	final Integer tcpFastOpen;
+	final Boolean tcpQuickAck;
+	final Boolean edgeTriggered;
+
+	final AtomicBoolean warned = new AtomicBoolean();
+
+	NativeOptions(Build builder) {
+		this.busyPollMicros = builder.busyPollMicros;
+		this.tcpFastOpen = builder.tcpFastOpen;
+		this.tcpQuickAck = builder.tcpQuickAck;
+		this.edgeTriggered = builder.edgeTriggered;
+	}
+
+	/**
+	 * Obtain the {@link NativeOptions} from the bootstrap, then apply them to
+	 * the listening socket and its accepted connections if the transport allows it.
+	 *
+	 * @param b the bootstrap to configure
+	 */
+	static void configure(ServerBootstrap b) {
+		NativeOptions options = get(b);
+		if (options == null || !supported(b.config().childGroup(), options)) {
+			return;
+		}
+		if (options.tcpFastOpen != null) {
+			b.option(EpollChannelOption.TCP_FASTOPEN, options.tcpFastOpen);
+		}
+		if (options.edgeTriggered != null) {
+			b.option(EpollChannelOption.EPOLL_MODE, mode(options.edgeTriggered))
+			 .childOption(EpollChannelOption.EPOLL_MODE, mode(options.edgeTriggered));
+		}
+		if (options.tcpQuickAck != null) {
+			b.childOption(EpollChannelOption.TCP_QUICKACK, options.tcpQuickAck);
+		}
+		if (options.busyPollMicros != null) {
+			b.childOption(EpollChannelOption.SO_BUSY_POLL, options.busyPollMicros);
+		}
+	}
+
+	/**
+	 * Obtain the {@link NativeOptions} from the bootstrap, then apply them to
+	 * the connection if the transport allows it.
+	 *
+	 * @param b the bootstrap to configure
+	 */
+	static void configure(Bootstrap b) {
+		NativeOptions options = get(b);
+		if (options == null || !supported(b.config().group(), options)) {
+			return;
+		}
+		if (options.tcpFastOpen != null) {
+			b.option(EpollChannelOption.TCP_FASTOPEN_CONNECT, options.tcpFastOpen > 0);
+		}
+		if (options.edgeTriggered != null) {
+			b.option(EpollChannelOption.EPOLL_MODE, mode(options.edgeTriggered));
+		}
+		if (options.tcpQuickAck != null) {
+			b.option(EpollChannelOption.TCP_QUICKACK, options.tcpQuickAck);
+		}
+		if (options.busyPollMicros != null) {
+			b.option(EpollChannelOption.SO_BUSY_POLL, options.busyPollMicros);
+		}
+	}
+
+	@Nullable
+	static NativeOptions get(AbstractBootstrap<?, ?> b) {
+		return (NativeOptions) b.config()
+		                        .attrs()
+		                        .get(NATIVE_OPTIONS);
+	}
+
+	static boolean supported(EventLoopGroup group, NativeOptions options) {
+		if (TcpServerReusePort.EPOLL && TcpServerReusePort.unwrap(group) instanceof EpollEventLoopGroup) {
+			return true;
+		}
+		if (options.warned.compareAndSet(false, true)) {
+			log.warn("{} require the epoll transport, they are ignored", options);
+		}
+		return false;
+	}
+
+	static EpollMode mode(boolean edgeTriggered) {
+		return edgeTriggered ? EpollMode.EDGE_TRIGGERED : EpollMode.LEVEL_TRIGGERED;
+	}
+
+	@Override
+	public String toString() {
+		return "NativeOptions {" +
+				"busyPollMicros=" + busyPollMicros +
+				", tcpFastOpen=" + tcpFastOpen +
+				", tcpQuickAck=" + tcpQuickAck +
+				", edgeTriggered=" + edgeTriggered +
+				'}';
+	}
+
+	public interface Builder {
+
+		/**
+		 * Set {@code SO_BUSY_POLL}, the approximate time in microseconds to busy poll
+		 * the device queue on blocking receives, trading CPU for latency.
+		 *
+		 * @param busyPollMicros the busy poll time in microseconds, {@code 0} to disable
+		 *
+		 * @return {@code this}
+		 */
+		Builder busyPollMicros(int busyPollMicros);
+
+		/**
+		 * Enable TCP Fast Open, saving a round trip on reconnections by sending data
+		 * with the {@code SYN}. On servers this sets {@code TCP_FASTOPEN} to the length
+		 * of the queue of pending Fast Open requests, on clients any strictly positive
+		 * value enables {@code TCP_FASTOPEN_CONNECT}.
+		 *
+		 * @param tcpFastOpen the queue length on servers, {@code 0} to disable
+		 *
+		 * @return {@code this}
+		 */
+		Builder tcpFastOpen(int tcpFastOpen);
+
+		/**
+		 * Set {@code TCP_QUICKACK}, sending acknowledgments immediately instead of
+		 * delaying them.
+		 *
+		 * @param tcpQuickAck true to send acknowledgments immediately
+		 *
+		 * @return {@code this}
+		 */
+		Builder tcpQuickAck(boolean tcpQuickAck);
+
+		/**
+		 * Select the edge-triggered or level-triggered epoll mode.
+		 *
+		 * @param edgeTriggered true for edge-triggered, false for level-triggered
+		 *
+		 * @return {@code this}
+		 */
+		Builder edgeTriggered(boolean edgeTriggered);
+
+		/**
+		 * Build the {@link NativeOptions}.
+		 *
+		 * @return the {@link NativeOptions}
+		 */
+		NativeOptions build();
+	}
+
+	static final class Build implements Builder {
+
+		Integer busyPollMicros;
+		Integer tcpFastOpen;
+		Boolean tcpQuickAck;
+		Boolean edgeTriggered;
+
+		@Override
+		public Builder busyPollMicros(int busyPollMicros) {
+			if (busyPollMicros < 0) {
+				throw new IllegalArgumentException("busyPollMicros must be positive or zero, was: " + busyPollMicros);
+			}
+			this.busyPollMicros = busyPollMicros;
+			return this;
+		}
+
+		@Override
+		public Builder tcpFastOpen(int tcpFastOpen) {
+			if (tcpFastOpen < 0) {
+				throw new IllegalArgumentException("tcpFastOpen must be positive or zero, was: " + tcpFastOpen);
+			}
+			this.tcpFastOpen = tcpFastOpen;
+			return this;
+		}
+
+		@Override
+		public Builder tcpQuickAck(boolean tcpQuickAck) {
+			this.tcpQuickAck = tcpQuickAck;
+			return this;
+		}
+
+		@Override
+		public Builder edgeTriggered(boolean edgeTriggered) {
+			this.edgeTriggered = edgeTriggered;
+			return this;
+		}
+
+		@Override
+		public NativeOptions build() {
+			return new NativeOptions(this);
+		}
+	}
+}
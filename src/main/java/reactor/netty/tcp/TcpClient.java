@@ -45,6 +45,7 @@ import reactor.netty.NettyInbound;
 import reactor.netty.NettyOutbound;
 import reactor.netty.NettyPipeline;
 import reactor.netty.channel.BootstrapHandlers;
+import reactor.netty.channel.MemoryBudget;
 import reactor.netty.resources.ConnectionProvider;
 import reactor.netty.resources.LoopResources;
 import reactor.util.Logger;
@@ -382,6 +383,60 @@ public abstract class TcpClient {
 		return bootstrap(b -> b.option(key, value));
 	}
 
+	/**
+	 * Account the bytes buffered by the connections in the given {@link MemoryBudget},
+	 * both inbound messages waiting for their subscriber and outbound messages waiting
+	 * for the socket. A connection stops reading while the budget is exceeded. The same
+	 * {@link MemoryBudget} can be shared by several servers and clients.
+	 *
+	 * @param memoryBudget the {@link MemoryBudget} to share
+	 *
+	 * @return a new {@link TcpClient}
+	 * @since 0.8.6
+	 */
+	public final TcpClient memoryBudget(MemoryBudget memoryBudget) {
+		Objects.requireNonNull(memoryBudget, "memoryBudget");
+		return bootstrap(b -> BootstrapHandlers.memoryBudget(b, memoryBudget));
+	}
+
+	/**
+	 * Stop reading from the connections while the bytes received but not yet consumed by
+	 * the inbound subscriber reach the high watermark, and resume once they drop to the
+	 * low watermark. This propagates the backpressure of a slow subscriber to the remote
+	 * peer through TCP flow control instead of buffering in memory.
+	 *
+	 * @param lowWatermark the number of buffered bytes at which reading resumes
+	 * @param highWatermark the number of buffered bytes at which reading stops
+	 *
+	 * @return a new {@link TcpClient}
+	 * @since 0.8.6
+	 */
+	public final TcpClient receiveWatermarks(int lowWatermark, int highWatermark) {
+		if (lowWatermark < 0 || highWatermark < lowWatermark || highWatermark == 0) {
+			throw new IllegalArgumentException("Expected 0 <= lowWatermark <= highWatermark and " +
+					"highWatermark > 0, was: lowWatermark=" + lowWatermark + ", highWatermark=" + highWatermark);
+		}
+		return bootstrap(b -> BootstrapHandlers.receiveWatermarks(b, lowWatermark, highWatermark));
+	}
+
+	/**
+	 * Apply typed options of the native epoll transport to the connection, such as
+	 * TCP Fast Open or busy polling. The options are ignored with a warning when the
+	 * epoll transport is not in use.
+	 *
+	 * @param nativeOptions the native options callback
+	 *
+	 * @return a new {@link TcpClient}
+	 * @since 0.8.6
+	 */
+	public final TcpClient nativeOptions(Consumer<? super NativeOptions.Builder> nativeOptions) {
+		Objects.requireNonNull(nativeOptions, "nativeOptions");
+		NativeOptions.Builder builder = NativeOptions.builder();
+		nativeOptions.accept(builder);
+		NativeOptions options = builder.build();
+		return bootstrap(b -> b.attr(NativeOptions.NATIVE_OPTIONS, options));
+	}
+
 	/**
 	 * The port to which this client should connect.
 	 *
@@ -532,6 +587,44 @@ public abstract class TcpClient {
 		return null;
 	}
 
+	/**
+	 * Open up to the given number of connections to the configured remote address
+	 * and park them in the {@link ConnectionProvider} pool, so that first requests do
+	 * not pay for the connection and TLS handshake. Connections already allocated count
+	 * towards the given number. Non pooled clients complete immediately.
+	 *
+	 * If update configuration phase fails, a {@link Mono#error(Throwable)} will be returned
+	 *
+	 * @param connections the number of connections the pool should hold
+	 *
+	 * @return a {@link Mono} completing when the connections are ready to be acquired
+	 * @since 0.8.6
+	 */
+	public final Mono<Void> warmup(int connections) {
+		Bootstrap b;
+		try {
+			b = configure();
+		}
+		catch (Throwable t) {
+			Exceptions.throwIfJvmFatal(t);
+			return Mono.error(t);
+		}
+		return warmup(b, connections);
+	}
+
+	/**
+	 * Open up to the given number of pooled connections for the given {@link Bootstrap}
+	 *
+	 * @param b the {@link Bootstrap} to connect
+	 * @param connections the number of connections the pool should hold
+	 *
+	 * @return a {@link Mono} completing when the connections are ready to be acquired
+	 * @since 0.8.6
+	 */
+	public Mono<Void> warmup(Bootstrap b, int connections) {
+		return Mono.empty();
+	}
+
 	/**
 	 * Apply a wire logger configuration using {@link TcpClient} category
 	 * and {@code DEBUG} logger level
@@ -53,7 +53,19 @@ final class TcpClientConnect extends TcpClient {
 
 	@Override
 	public Mono<? extends Connection> connect(Bootstrap b) {
+		configureGroup(b);
+		NativeOptions.configure(b);
+		return provider.acquire(b);
+	}
+
+	@Override
+	public Mono<Void> warmup(Bootstrap b, int connections) {
+		configureGroup(b);
+		NativeOptions.configure(b);
+		return provider.warmup(b, connections);
+	}
 
+	void configureGroup(Bootstrap b) {
 		if (b.config()
 		     .group() == null) {
 
@@ -62,8 +74,5 @@ final class TcpClientConnect extends TcpClient {
 					TcpResources.get(),
 					maxConnections != -1);
 		}
-
-		return provider.acquire(b);
-
 	}
 }
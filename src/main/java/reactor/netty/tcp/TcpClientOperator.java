@@ -43,6 +43,11 @@ abstract class TcpClientOperator extends TcpClient {
 		return source.connect(b);
 	}
 
+	@Override
+	public Mono<Void> warmup(Bootstrap b, int connections) {
+		return source.warmup(b, connections);
+	}
+
 	@Override
 	@Nullable
 	public SslProvider sslProvider(){
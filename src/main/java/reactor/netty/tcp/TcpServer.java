@@ -44,6 +44,7 @@ import reactor.netty.NettyInbound;
 import reactor.netty.NettyOutbound;
 import reactor.netty.NettyPipeline;
 import reactor.netty.channel.BootstrapHandlers;
+import reactor.netty.channel.MemoryBudget;
 import reactor.netty.resources.LoopResources;
 import reactor.util.Logger;
 import reactor.util.Loggers;
@@ -376,6 +377,100 @@ public abstract class TcpServer {
 		return bootstrap(b -> b.childOption(key, value));
 	}
 
+	/**
+	 * Limit the number of concurrent connections. Once the limit is reached the server
+	 * stops accepting, leaving the pending connections in the accept backlog, and
+	 * resumes when a connection closes.
+	 *
+	 * @param maxConnections the maximum number of concurrent connections
+	 *
+	 * @return a new {@link TcpServer}
+	 * @since 0.8.6
+	 */
+	public final TcpServer maxConnections(int maxConnections) {
+		if (maxConnections < 1) {
+			throw new IllegalArgumentException("maxConnections must be strictly positive, was: " + maxConnections);
+		}
+		return bootstrap(b -> b.attr(TcpServerAcceptLimit.MAX_CONNECTIONS, maxConnections));
+	}
+
+	/**
+	 * Limit the rate at which connections are accepted with a token bucket, so that a
+	 * reconnection storm does not starve the established connections. When the bucket
+	 * is empty the server stops accepting until a token is available again.
+	 *
+	 * @param permitsPerSecond the sustained number of connections accepted per second
+	 * @param burst the number of connections that can be accepted at once
+	 *
+	 * @return a new {@link TcpServer}
+	 * @since 0.8.6
+	 */
+	public final TcpServer acceptRate(int permitsPerSecond, int burst) {
+		if (permitsPerSecond < 1) {
+			throw new IllegalArgumentException("permitsPerSecond must be strictly positive, was: " + permitsPerSecond);
+		}
+		if (burst < 1) {
+			throw new IllegalArgumentException("burst must be strictly positive, was: " + burst);
+		}
+		return bootstrap(b -> b.attr(TcpServerAcceptLimit.ACCEPT_RATE, permitsPerSecond)
+		                       .attr(TcpServerAcceptLimit.ACCEPT_BURST, burst));
+	}
+
+	/**
+	 * Account the bytes buffered by the accepted connections in the given
+	 * {@link MemoryBudget}, both inbound messages waiting for their subscriber and
+	 * outbound messages waiting for the socket. A connection stops reading while the
+	 * budget is exceeded. The same {@link MemoryBudget} can be shared by several servers
+	 * and clients.
+	 *
+	 * @param memoryBudget the {@link MemoryBudget} to share
+	 *
+	 * @return a new {@link TcpServer}
+	 * @since 0.8.6
+	 */
+	public final TcpServer memoryBudget(MemoryBudget memoryBudget) {
+		Objects.requireNonNull(memoryBudget, "memoryBudget");
+		return bootstrap(b -> BootstrapHandlers.memoryBudget(b, memoryBudget));
+	}
+
+	/**
+	 * Stop reading from the accepted connections while the bytes received but not yet
+	 * consumed by the inbound subscriber reach the high watermark, and resume once they
+	 * drop to the low watermark. This propagates the backpressure of a slow subscriber
+	 * to the remote peer through TCP flow control instead of buffering in memory.
+	 *
+	 * @param lowWatermark the number of buffered bytes at which reading resumes
+	 * @param highWatermark the number of buffered bytes at which reading stops
+	 *
+	 * @return a new {@link TcpServer}
+	 * @since 0.8.6
+	 */
+	public final TcpServer receiveWatermarks(int lowWatermark, int highWatermark) {
+		if (lowWatermark < 0 || highWatermark < lowWatermark || highWatermark == 0) {
+			throw new IllegalArgumentException("Expected 0 <= lowWatermark <= highWatermark and " +
+					"highWatermark > 0, was: lowWatermark=" + lowWatermark + ", highWatermark=" + highWatermark);
+		}
+		return bootstrap(b -> BootstrapHandlers.receiveWatermarks(b, lowWatermark, highWatermark));
+	}
+
+	/**
+	 * Apply typed options of the native epoll transport to the listening socket and its
+	 * accepted connections, such as TCP Fast Open or busy polling. The options are
+	 * ignored with a warning when the epoll transport is not in use.
+	 *
+	 * @param nativeOptions the native options callback
+	 *
+	 * @return a new {@link TcpServer}
+	 * @since 0.8.6
+	 */
+	public final TcpServer nativeOptions(Consumer<? super NativeOptions.Builder> nativeOptions) {
+		Objects.requireNonNull(nativeOptions, "nativeOptions");
+		NativeOptions.Builder builder = NativeOptions.builder();
+		nativeOptions.accept(builder);
+		NativeOptions options = builder.build();
+		return bootstrap(b -> b.attr(NativeOptions.NATIVE_OPTIONS, options));
+	}
+
 	/**
 	 * The port to which this server should bind.
 	 *
@@ -387,6 +482,36 @@ public abstract class TcpServer {
 		return bootstrap(b -> TcpUtils.updatePort(b, port));
 	}
 
+	/**
+	 * Bind one listening socket per worker event loop with {@code SO_REUSEPORT}, letting
+	 * the kernel spread incoming connections among them instead of funneling all
+	 * accepts through a single selector. This requires the native epoll transport, a
+	 * single listening socket is bound otherwise.
+	 *
+	 * @return a new {@link TcpServer}
+	 * @since 0.8.6
+	 */
+	public final TcpServer reusePort() {
+		return reusePort(0);
+	}
+
+	/**
+	 * Bind the given number of listening sockets with {@code SO_REUSEPORT}, letting the
+	 * kernel spread incoming connections among them instead of funneling all accepts
+	 * through a single selector. The listening sockets are registered on the worker
+	 * event loops and exposed as a single {@link DisposableServer}. This requires the
+	 * native epoll transport, a single listening socket is bound otherwise.
+	 *
+	 * @param acceptors the number of listening sockets, {@code 0} for one per worker
+	 * event loop
+	 *
+	 * @return a new {@link TcpServer}
+	 * @since 0.8.6
+	 */
+	public final TcpServer reusePort(int acceptors) {
+		return new TcpServerReusePort(this, acceptors);
+	}
+
 	/**
 	 * Run IO loops on the given {@link EventLoopGroup}.
 	 *
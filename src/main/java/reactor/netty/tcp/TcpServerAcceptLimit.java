@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.tcp;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.EventExecutor;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import static reactor.netty.ReactorNetty.format;
+
+/**
+ * Limit the connections accepted by the listening sockets, both in number of
+ * concurrent connections and in rate with a token bucket. When a limit is reached the
+ * listening sockets stop reading, leaving the pending connections in the accept
+ * backlog, until a connection closes or a token is available again. Connections
+ * already read from the socket in the meantime are closed immediately.
+ */
+@ChannelHandler.Sharable
+final class TcpServerAcceptLimit extends ChannelInboundHandlerAdapter {
+
+	static final Logger log = Loggers.getLogger(TcpServerAcceptLimit.class);
+
+	static final AttributeKey<Integer> MAX_CONNECTIONS = AttributeKey.newInstance("acceptMaxConnections");
+	static final AttributeKey<Integer> ACCEPT_RATE     = AttributeKey.newInstance("acceptRate");
+	static final AttributeKey<Integer> ACCEPT_BURST    = AttributeKey.newInstance("acceptBurst");
+
+	/**
+	 * Obtain the accept limits from the bootstrap, then install them on the listening
+	 * sockets.
+	 *
+	 * @param b the bootstrap to configure
+	 */
+	static void configure(ServerBootstrap b) {
+		Integer maxConnections = get(b, MAX_CONNECTIONS);
+		Integer rate = get(b, ACCEPT_RATE);
+		Integer burst = get(b, ACCEPT_BURST);
+		if (maxConnections == null && rate == null) {
+			return;
+		}
+
+		TcpServerAcceptLimit limit = new TcpServerAcceptLimit(
+				maxConnections != null ? maxConnections : -1,
+				rate != null ? rate : -1,
+				burst != null ? burst : 1);
+		ChannelHandler handler = b.config()
+		                          .handler();
+		if (handler == null) {
+			b.handler(limit);
+		}
+		else {
+			b.handler(new ChannelInitializer<Channel>() {
+				@Override
+				protected void initChannel(Channel ch) {
+					ch.pipeline()
+					  .addLast(handler)
+					  .addLast(limit);
+				}
+			});
+		}
+	}
+
+	static Integer get(ServerBootstrap b, AttributeKey<Integer> key) {
+		return (Integer) b.config()
+		                  .attrs()
+		                  .get(key);
+	}
+
+	final int           maxConnections;
+	final int           burst;
+	final long          nanosPerPermit;
+	final AtomicInteger active    = new AtomicInteger();
+	final List<Channel> acceptors = new CopyOnWriteArrayList<>();
+
+	double  permits;
+	long    lastRefill;
+	boolean resumeScheduled;
+
+	TcpServerAcceptLimit(int maxConnections, int rate, int burst) {
+		this.maxConnections = maxConnections;
+		this.burst = burst;
+		this.nanosPerPermit = rate > 0 ? TimeUnit.SECONDS.toNanos(1) / rate : -1;
+		this.permits = burst;
+		this.lastRefill = System.nanoTime();
+	}
+
+	@Override
+	public void handlerAdded(ChannelHandlerContext ctx) {
+		acceptors.add(ctx.channel());
+		ctx.channel()
+		   .closeFuture()
+		   .addListener(f -> acceptors.remove(ctx.channel()));
+	}
+
+	@Override
+	public void channelRead(ChannelHandlerContext ctx, Object msg) {
+		Channel child = (Channel) msg;
+
+		int n = active.incrementAndGet();
+		if (maxConnections > 0 && n > maxConnections) {
+			active.decrementAndGet();
+			reject(child, "max connections");
+			pauseAtLimit(ctx.executor());
+			return;
+		}
+
+		if (!tryAcquire()) {
+			active.decrementAndGet();
+			reject(child, "accept rate");
+			pauseUntilPermit(ctx);
+			return;
+		}
+		// leave the next connections in the backlog until a permit is available
+		pauseUntilPermit(ctx);
+
+		child.closeFuture()
+		     .addListener(f -> {
+		         if (active.decrementAndGet() < maxConnections) {
+		             resume(child.eventLoop());
+		         }
+		     });
+		if (n == maxConnections) {
+			pauseAtLimit(ctx.executor());
+		}
+		ctx.fireChannelRead(child);
+	}
+
+	synchronized boolean tryAcquire() {
+		if (nanosPerPermit < 0) {
+			return true;
+		}
+		refill();
+		if (permits >= 1) {
+			permits--;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Stop accepting until the token bucket holds a permit again.
+	 */
+	void pauseUntilPermit(ChannelHandlerContext ctx) {
+		long wait = permitWait();
+		if (wait == 0) {
+			return;
+		}
+		pause();
+		scheduleResume(ctx.executor(), wait);
+	}
+
+	/**
+	 * Return the nanoseconds until the token bucket holds a permit, 0 if it already
+	 * holds one or no accept rate is configured.
+	 */
+	synchronized long permitWait() {
+		if (nanosPerPermit < 0) {
+			return 0;
+		}
+		refill();
+		if (permits >= 1) {
+			return 0;
+		}
+		return Math.max(1, (long) ((1 - permits) * nanosPerPermit));
+	}
+
+	void scheduleResume(EventExecutor executor, long wait) {
+		synchronized (this) {
+			if (resumeScheduled) {
+				return;
+			}
+			resumeScheduled = true;
+		}
+		executor.schedule(() -> {
+			synchronized (this) {
+				resumeScheduled = false;
+			}
+			resume(executor);
+		}, wait, TimeUnit.NANOSECONDS);
+	}
+
+	void refill() {
+		long now = System.nanoTime();
+		permits = Math.min(burst, permits + (double) (now - lastRefill) / nanosPerPermit);
+		lastRefill = now;
+	}
+
+	void reject(Channel child, String reason) {
+		if (log.isDebugEnabled()) {
+			log.debug(format(child, "Rejected connection, {} reached"), reason);
+		}
+		child.unsafe()
+		     .closeForcibly();
+	}
+
+	void pause() {
+		for (Channel acceptor : acceptors) {
+			acceptor.config()
+			        .setAutoRead(false);
+		}
+	}
+
+	void pauseAtLimit(EventExecutor executor) {
+		pause();
+		// a connection may have closed before the acceptors were paused
+		if (active.get() < maxConnections) {
+			resume(executor);
+		}
+	}
+
+	/**
+	 * Resume accepting if under the connection limit and the token bucket holds a
+	 * permit, otherwise try again once a permit is available.
+	 */
+	void resume(EventExecutor executor) {
+		if (maxConnections > 0 && active.get() >= maxConnections) {
+			return;
+		}
+		long wait = permitWait();
+		if (wait > 0) {
+			scheduleResume(executor, wait);
+			return;
+		}
+		for (Channel acceptor : acceptors) {
+			acceptor.config()
+			        .setAutoRead(true);
+		}
+	}
+}
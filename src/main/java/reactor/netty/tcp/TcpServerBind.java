@@ -19,8 +19,14 @@ package reactor.netty.tcp;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.PooledByteBufAllocator;
@@ -28,14 +34,22 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.ChannelGroupFuture;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.util.concurrent.GlobalEventExecutor;
 import io.netty.util.NetUtil;
 import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.MonoSink;
 import reactor.netty.ChannelBindException;
 import reactor.netty.Connection;
 import reactor.netty.ConnectionObserver;
 import reactor.netty.DisposableServer;
+import reactor.netty.FutureMono;
+import reactor.netty.NettyPipeline;
 import reactor.netty.channel.AbortedException;
 import reactor.netty.channel.BootstrapHandlers;
 import reactor.netty.channel.ChannelOperations;
@@ -71,7 +85,7 @@ final class TcpServerBind extends TcpServer {
 			TcpServerRunOn.configure(b, LoopResources.DEFAULT_NATIVE, TcpResources.get());
 		}
 
-		return Mono.create(sink -> {
+		return Mono.defer(() -> {
 			ServerBootstrap bootstrap = b.clone();
 
 			ConnectionObserver obs = BootstrapHandlers.connectionObserver(bootstrap);
@@ -79,19 +93,65 @@ final class TcpServerBind extends TcpServer {
 					BootstrapHandlers.childConnectionObserver(bootstrap);
 			ChannelOperations.OnSetup ops =
 					BootstrapHandlers.channelOperationFactory(bootstrap);
+			NativeOptions.configure(bootstrap);
+			TcpServerAcceptLimit.configure(bootstrap);
+			int acceptors = TcpServerReusePort.configure(bootstrap);
 
 			convertLazyLocalAddress(bootstrap);
 
-			BootstrapHandlers.finalizeHandler(bootstrap, ops, new ChildObserver(childObs));
+			ChildObserver children = new ChildObserver(childObs);
+			BootstrapHandlers.finalizeHandler(bootstrap, ops, children);
+
+			if (acceptors > 1) {
+				return bindAcceptors(bootstrap, obs, children, acceptors);
+			}
+			return bind(bootstrap, obs, children);
+		});
+	}
 
+	static Mono<DisposableServer> bind(ServerBootstrap bootstrap, ConnectionObserver obs,
+			ChildObserver children) {
+		return Mono.create(sink -> {
 			ChannelFuture f = bootstrap.bind();
 
-			DisposableBind disposableServer = new DisposableBind(sink, f, obs, bootstrap);
+			DisposableBind disposableServer = new DisposableBind(sink, f, obs, bootstrap, children);
 			f.addListener(disposableServer);
 			sink.onCancel(disposableServer);
 		});
 	}
 
+	/**
+	 * Bind the first acceptor, possibly on an ephemeral port, then the remaining ones
+	 * on the very same address. Acceptors already bound are disposed if any of the
+	 * others fails.
+	 */
+	static Mono<DisposableServer> bindAcceptors(ServerBootstrap bootstrap,
+			ConnectionObserver obs, ChildObserver children, int acceptors) {
+		Queue<DisposableServer> bound = new ConcurrentLinkedQueue<>();
+		return bind(bootstrap, ConnectionObserver.emptyListener(), children)
+		           .doOnNext(bound::add)
+		           .flatMap(first ->
+		               Flux.range(1, acceptors - 1)
+		                   .flatMap(i -> bind(bootstrap.clone()
+		                                               .localAddress(first.address()),
+		                           ConnectionObserver.emptyListener(), children))
+		                   .doOnNext(bound::add)
+		                   .then(Mono.<DisposableServer>fromCallable(() -> {
+		                       DisposableAcceptors server =
+		                               new DisposableAcceptors(new ArrayList<>(bound), children);
+		                       // ownership moves to the returned server
+		                       bound.clear();
+		                       if (log.isDebugEnabled()) {
+		                           log.debug(format(server.channel(), "Bound {} acceptors with SO_REUSEPORT"),
+		                                   acceptors);
+		                       }
+		                       obs.onStateChange(server, ConnectionObserver.State.CONNECTED);
+		                       return server;
+		                   })))
+		           .doOnError(e -> bound.forEach(DisposableServer::dispose))
+		           .doOnCancel(() -> bound.forEach(DisposableServer::dispose));
+	}
+
 	@Override
 	public ServerBootstrap configure() {
 		return this.serverBootstrap.clone();
@@ -144,14 +204,17 @@ final class TcpServerBind extends TcpServer {
 		final ChannelFuture              f;
 		final ServerBootstrap            bootstrap;
 		final ConnectionObserver         selectorObserver;
+		final ChildObserver              children;
 
 		DisposableBind(MonoSink<DisposableServer> sink, ChannelFuture f,
 				ConnectionObserver selectorObserver,
-				ServerBootstrap bootstrap) {
+				ServerBootstrap bootstrap,
+				ChildObserver children) {
 			this.sink = sink;
 			this.bootstrap = bootstrap;
 			this.f = f;
 			this.selectorObserver = selectorObserver;
+			this.children = children;
 		}
 
 		@Override
@@ -174,6 +237,25 @@ final class TcpServerBind extends TcpServer {
 			}
 		}
 
+		@Override
+		public Mono<Void> disposeGracefully(Duration timeout) {
+			Objects.requireNonNull(timeout, "timeout");
+			return Mono.defer(() -> {
+				f.removeListener(this);
+				if (!f.isDone()) {
+					f.cancel(true);
+					return Mono.empty();
+				}
+				return FutureMono.from(f.channel()
+				                        .close())
+				                 .then(children.drain(timeout))
+				                 .then(Mono.fromRunnable(() ->
+				                         HttpResources.get()
+				                                      .disposeWhen(bootstrap.config()
+				                                                            .localAddress())));
+			});
+		}
+
 		@Override
 		public Channel channel() {
 			return f.channel();
@@ -200,12 +282,93 @@ final class TcpServerBind extends TcpServer {
 		}
 	}
 
+	static final class DisposableAcceptors implements DisposableServer, Connection {
+
+		final List<DisposableServer> acceptors;
+		final ChildObserver          children;
+
+		DisposableAcceptors(List<DisposableServer> acceptors, ChildObserver children) {
+			this.acceptors = acceptors;
+			this.children = children;
+		}
+
+		@Override
+		public Channel channel() {
+			return acceptors.get(0)
+			                .channel();
+		}
+
+		@Override
+		public void dispose() {
+			acceptors.forEach(DisposableServer::dispose);
+		}
+
+		@Override
+		public Mono<Void> disposeGracefully(Duration timeout) {
+			Objects.requireNonNull(timeout, "timeout");
+			return Mono.when(acceptors.stream()
+			                          .map(acceptor -> FutureMono.from(acceptor.channel()
+			                                                                   .close()))
+			                          .collect(Collectors.toList()))
+			           .then(children.drain(timeout))
+			           .then(Mono.fromRunnable(this::dispose));
+		}
+
+		@Override
+		public boolean isDisposed() {
+			for (DisposableServer acceptor : acceptors) {
+				if (!acceptor.isDisposed()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public Mono<Void> onDispose() {
+			return Mono.when(acceptors.stream()
+			                          .map(DisposableServer::onDispose)
+			                          .collect(Collectors.toList()));
+		}
+	}
+
 	final static class ChildObserver implements ConnectionObserver {
 
 		final ConnectionObserver childObs;
+		final ChannelGroup       connections;
 
 		ChildObserver(ConnectionObserver childObs) {
 			this.childObs = childObs;
+			this.connections = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+		}
+
+		/**
+		 * Ask the accepted connections to close once the requests in flight have
+		 * completed and wait for them, closing the remaining ones after the timeout.
+		 *
+		 * @param timeout the maximum time to wait for the connections to close
+		 *
+		 * @return a {@link Mono} completing when all the connections are closed
+		 */
+		Mono<Void> drain(Duration timeout) {
+			return Mono.defer(() -> {
+				if (connections.isEmpty()) {
+					return Mono.empty();
+				}
+				ChannelGroupFuture closed = connections.newCloseFuture();
+				for (Channel connection : connections) {
+					connection.pipeline()
+					          .fireUserEventTriggered(NettyPipeline.DrainEvent.INSTANCE);
+				}
+				return FutureMono.from(closed)
+				                 .timeout(timeout, Mono.defer(() -> {
+				                     if (log.isDebugEnabled()) {
+				                         log.debug("Drain timed out after {}ms, closing {} connections",
+				                                 timeout.toMillis(), connections.size());
+				                     }
+				                     return FutureMono.from(connections.close());
+				                 }));
+			});
 		}
 
 		@Override
@@ -224,6 +387,11 @@ final class TcpServerBind extends TcpServer {
 
 		@Override
 		public void onStateChange(Connection connection, State newState) {
+			// HTTP/2 streams are child channels of the accepted connections
+			if (newState == State.CONNECTED &&
+					connection.channel().parent() instanceof ServerChannel) {
+				connections.add(connection.channel());
+			}
 			if (newState == State.DISCONNECTING) {
 				if (connection.channel()
 				              .isActive() && !connection.isPersistent()) {
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.tcp;
+
+import java.util.function.Supplier;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.EventExecutor;
+import reactor.netty.resources.LoopResources;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+/**
+ * Bind several listening sockets sharing the same local address with
+ * {@code SO_REUSEPORT}, each of them registered on its own worker event loop, so
+ * that the kernel spreads incoming connections among them.
+ */
+final class TcpServerReusePort extends TcpServerOperator {
+
+	static final Logger log = Loggers.getLogger(TcpServerReusePort.class);
+
+	static final AttributeKey<Integer> ACCEPTORS = AttributeKey.newInstance("acceptors");
+
+	static final boolean EPOLL;
+
+	static {
+		boolean epollCheck = false;
+		try {
+			Class.forName("io.netty.channel.epoll.Epoll");
+			epollCheck = Epoll.isAvailable();
+		}
+		catch (ClassNotFoundException cnfe) {
+		}
+		EPOLL = epollCheck;
+	}
+
+	final int acceptors;
+
+	TcpServerReusePort(TcpServer server, int acceptors) {
+		super(server);
+		if (acceptors < 0) {
+			throw new IllegalArgumentException("acceptors must be positive or zero, was: " + acceptors);
+		}
+		this.acceptors = acceptors;
+	}
+
+	@Override
+	public ServerBootstrap configure() {
+		ServerBootstrap b = source.configure();
+		b.attr(ACCEPTORS, acceptors);
+		return b;
+	}
+
+	/**
+	 * Obtain the requested number of acceptors from the bootstrap, then
+	 * prepare the bootstrap for a multi-acceptor bind if the transport allows it.
+	 *
+	 * @param b the bootstrap to scan
+	 *
+	 * @return the number of listening sockets to bind, {@code 1} when
+	 * {@code SO_REUSEPORT} is not requested or not supported
+	 */
+	static int configure(ServerBootstrap b) {
+		Integer requested = (Integer) b.config()
+		                               .attrs()
+		                               .get(ACCEPTORS);
+		if (requested == null) {
+			return 1;
+		}
+
+		EventLoopGroup workers = b.config()
+		                          .childGroup();
+		if (!EPOLL || !(unwrap(workers) instanceof EpollEventLoopGroup)) {
+			if (log.isDebugEnabled()) {
+				log.debug("SO_REUSEPORT requires the epoll transport, binding a single acceptor");
+			}
+			return 1;
+		}
+
+		int acceptors = requested;
+		if (acceptors == 0) {
+			for (EventExecutor ignored : workers) {
+				acceptors++;
+			}
+		}
+
+		// Listening sockets are spread over the worker loops round-robin, accepted
+		// connections are kept on the loop that accepted them
+		b.group(workers, LoopResources.colocate(workers))
+		 .option(EpollChannelOption.SO_REUSEPORT, true);
+		return acceptors;
+	}
+
+	/**
+	 * Return the event loop group decorated by the {@link LoopResources}, if any.
+	 */
+	@SuppressWarnings("unchecked")
+	static EventLoopGroup unwrap(EventLoopGroup group) {
+		while (group instanceof Supplier) {
+			group = ((Supplier<EventLoopGroup>) group).get();
+		}
+		return group;
+	}
+}
@@ -16,6 +16,7 @@
 
 package reactor.netty.channel;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
@@ -29,9 +30,14 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.DefaultFileRegion;
 import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.codec.http.HttpMethod;
 import org.junit.Test;
+import reactor.core.publisher.DirectProcessor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
@@ -120,6 +126,104 @@ public class ChannelOperationsHandlerTest {
 		assertThat(handler.prefetch == (handler.inner.requested - handler.inner.produced)).isTrue();
 	}
 
+	@Test
+	public void coalesceWritesGathersSmallBuffers() {
+		ChannelOperationsHandler handler = new ChannelOperationsHandler(null, null);
+		EmbeddedChannel channel = new EmbeddedChannel(handler);
+		handler.coalesceWrites(16);
+
+		StepVerifier.create(FutureMono.deferFuture(() -> channel.writeAndFlush(
+				Flux.range(0, 10)
+				    .map(i -> Unpooled.copiedBuffer("ab", Charset.defaultCharset())))))
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(30));
+
+		ByteBuf first = channel.readOutbound();
+		ByteBuf second = channel.readOutbound();
+		assertThat((Object) channel.readOutbound()).isNull();
+		assertThat(first.toString(Charset.defaultCharset())).isEqualTo("abababababababab");
+		assertThat(second.toString(Charset.defaultCharset())).isEqualTo("abab");
+		first.release();
+		second.release();
+	}
+
+	@Test
+	public void flushOnThresholdFlushesAfterMaxMessagesOrMaxDelay() throws Exception {
+		ChannelOperationsHandler handler = new ChannelOperationsHandler(null, null);
+		EmbeddedChannel channel = new EmbeddedChannel(handler);
+		handler.flushOnThreshold(1024, 3, Duration.ofMillis(50));
+
+		DirectProcessor<ByteBuf> source = DirectProcessor.create();
+		channel.writeAndFlush(source);
+
+		source.onNext(Unpooled.copiedBuffer("a", Charset.defaultCharset()));
+		source.onNext(Unpooled.copiedBuffer("b", Charset.defaultCharset()));
+		assertThat((Object) channel.readOutbound()).isNull();
+
+		source.onNext(Unpooled.copiedBuffer("c", Charset.defaultCharset()));
+		assertThat(channel.outboundMessages()).hasSize(3);
+		channel.releaseOutbound();
+
+		source.onNext(Unpooled.copiedBuffer("d", Charset.defaultCharset()));
+		assertThat((Object) channel.readOutbound()).isNull();
+
+		Thread.sleep(100);
+		channel.runScheduledPendingTasks();
+		ByteBuf delayed = channel.readOutbound();
+		assertThat(delayed.toString(Charset.defaultCharset())).isEqualTo("d");
+		delayed.release();
+	}
+
+	@Test
+	public void scalarPublisherIsWrittenWithoutQueueing() {
+		ChannelOperationsHandler handler = new ChannelOperationsHandler(null, null);
+		EmbeddedChannel channel = new EmbeddedChannel(handler);
+
+		ChannelFuture future = channel.writeAndFlush(
+				Mono.just(Unpooled.copiedBuffer("test", Charset.defaultCharset())));
+
+		assertThat(future.isSuccess()).isTrue();
+		assertThat(handler.pendingWrites).isNull();
+		ByteBuf written = channel.readOutbound();
+		assertThat(written.toString(Charset.defaultCharset())).isEqualTo("test");
+		written.release();
+
+		channel.writeAndFlush(Mono.empty()).syncUninterruptibly();
+		assertThat((Object) channel.readOutbound()).isNull();
+		assertThat(handler.pendingWrites).isNull();
+	}
+
+	@Test
+	public void queuedBytesPauseDemandWithoutFailingWrites() {
+		ChannelOperationsHandler handler = new ChannelOperationsHandler(null, null);
+		EmbeddedChannel channel = new EmbeddedChannel(handler);
+		channel.config()
+		       .setWriteBufferLowWaterMark(8);
+		channel.config()
+		       .setWriteBufferHighWaterMark(16);
+
+		DirectProcessor<ByteBuf> source = DirectProcessor.create();
+		ChannelFuture sent = channel.writeAndFlush(source);
+
+		ChannelFuture first = channel.writeAndFlush(Unpooled.copiedBuffer("0123456789", Charset.defaultCharset()));
+		ChannelFuture region = channel.writeAndFlush(new DefaultFileRegion(new File("unused"), 0, 1 << 20));
+		assertThat(handler.queuedBytes).isEqualTo(10L);
+		assertThat(handler.canRequestMore()).isTrue();
+
+		ChannelFuture second = channel.writeAndFlush(Unpooled.copiedBuffer("0123456789", Charset.defaultCharset()));
+		assertThat(handler.queuedBytes).isEqualTo(20L);
+		assertThat(handler.canRequestMore()).isFalse();
+
+		source.onComplete();
+		assertThat(sent.isSuccess()).isTrue();
+		assertThat(first.isSuccess()).isTrue();
+		assertThat(region.isSuccess()).isTrue();
+		assertThat(second.isSuccess()).isTrue();
+		assertThat(handler.queuedBytes).isZero();
+		assertThat(channel.outboundMessages()).hasSize(3);
+		channel.releaseOutbound();
+	}
+
 	@Test
 	public void testChannelInactiveThrowsIOException() throws Exception {
 		ExecutorService threadPool = Executors.newCachedThreadPool();
@@ -15,19 +15,30 @@
  */
 package reactor.netty.channel;
 
+import java.nio.charset.Charset;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
 import reactor.netty.DisposableServer;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 public class FluxReceiveTest {
 
@@ -127,6 +138,65 @@ public class FluxReceiveTest {
 		server2.disposeNow();
 	}
 
+	@Test
+	public void watermarksToggleAutoRead() {
+		EmbeddedChannel channel = new EmbeddedChannel();
+		channel.attr(FluxReceive.Watermarks.KEY).set(new FluxReceive.Watermarks(10, 24));
+		ChannelOperations<?, ?> ops = new ChannelOperations<>(Connection.from(channel),
+				ConnectionObserver.emptyListener());
+		FluxReceive inbound = ops.inbound;
+
+		// an eager protocol reads ahead of the subscriber
+		channel.config().setAutoRead(true);
+		for (int i = 0; i < 3; i++) {
+			inbound.onInboundNext(Unpooled.wrappedBuffer(new byte[10]));
+		}
+		assertThat(inbound.receiverQueueBytes).isEqualTo(30);
+		assertThat(channel.config().isAutoRead()).isFalse();
+
+		StepVerifier.create(inbound, 1)
+		            .expectNextCount(1)
+		            .then(() -> assertThat(channel.config().isAutoRead()).isFalse())
+		            .thenRequest(1)
+		            .expectNextCount(1)
+		            .then(() -> assertThat(channel.config().isAutoRead()).isTrue())
+		            .thenCancel()
+		            .verify(Duration.ofSeconds(30));
+
+		assertThat(inbound.receiverQueueBytes).isZero();
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void receiveBatchedGathersBuffersPerReadCycle() {
+		EmbeddedChannel channel = new EmbeddedChannel();
+		ChannelOperations<?, ?> ops = new ChannelOperations<>(Connection.from(channel),
+				ConnectionObserver.emptyListener());
+		FluxReceive inbound = ops.inbound;
+
+		List<String> received = new ArrayList<>();
+		ops.receiveBatched()
+		   .asString()
+		   .subscribe(received::add);
+
+		ByteBuf first = Unpooled.copiedBuffer("ab", Charset.defaultCharset());
+		ByteBuf second = Unpooled.copiedBuffer("cd", Charset.defaultCharset());
+		inbound.onInboundNext(first);
+		inbound.onInboundNext(second);
+		assertThat(received).isEmpty();
+
+		ops.onInboundReadComplete();
+		assertThat(received).containsExactly("abcd");
+		assertThat(first.refCnt()).isZero();
+		assertThat(second.refCnt()).isZero();
+
+		inbound.onInboundNext(Unpooled.copiedBuffer("ef", Charset.defaultCharset()));
+		ops.onInboundReadComplete();
+		assertThat(received).containsExactly("abcd", "ef");
+
+		channel.finishAndReleaseAll();
+	}
+
 	/*static final Logger logger = Loggers.getLogger(FluxReceiveTest.class);
 
 	@Test
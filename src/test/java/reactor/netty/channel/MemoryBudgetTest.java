@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.channel;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.channel.FileRegion;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.local.LocalChannel;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.DisposableServer;
+import reactor.netty.NettyPipeline;
+import reactor.netty.tcp.TcpClient;
+import reactor.netty.tcp.TcpServer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MemoryBudgetTest {
+
+	@Test
+	public void connectionPausesReadsWhileOverBudget() {
+		MemoryBudget global = MemoryBudget.create(100, 60);
+
+		EmbeddedChannel first = new EmbeddedChannel();
+		first.attr(MemoryBudget.BUDGET).set(global);
+		ConnectionBudget firstBudget = ConnectionBudget.attach(first);
+
+		EmbeddedChannel second = new EmbeddedChannel();
+		second.attr(MemoryBudget.BUDGET).set(global);
+		ConnectionBudget secondBudget = ConnectionBudget.attach(second);
+
+		// over the connection share
+		firstBudget.acquire(70);
+		assertThat(first.config().isAutoRead()).isFalse();
+		firstBudget.release(20);
+		assertThat(first.config().isAutoRead()).isTrue();
+
+		// over the global budget
+		secondBudget.acquire(55);
+		assertThat(global.usedBytes()).isEqualTo(105);
+		assertThat(second.config().isAutoRead()).isFalse();
+		assertThat(first.config().isAutoRead()).isTrue();
+
+		firstBudget.release(50);
+		second.runPendingTasks();
+		assertThat(second.config().isAutoRead()).isTrue();
+
+		// the bytes of a closed connection are returned
+		second.close();
+		assertThat(global.usedBytes()).isZero();
+		assertThat(global.usedBytes(Connection.from(second))).isZero();
+		first.close();
+	}
+
+	@Test
+	public void accountingFromOtherThreadsMovesToTheEventLoop() throws Exception {
+		MemoryBudget global = MemoryBudget.create(1024, 1024);
+		DefaultEventLoopGroup group = new DefaultEventLoopGroup(1);
+		LocalChannel channel = new LocalChannel();
+		try {
+			group.register(channel)
+			     .syncUninterruptibly();
+			channel.attr(MemoryBudget.BUDGET).set(global);
+			ConnectionBudget budget = ConnectionBudget.attach(channel);
+
+			CountDownLatch blocked = new CountDownLatch(1);
+			channel.eventLoop()
+			       .execute(() -> {
+			           try {
+			               blocked.await(30, TimeUnit.SECONDS);
+			           }
+			           catch (InterruptedException e) {
+			               Thread.currentThread().interrupt();
+			           }
+			       });
+
+			budget.acquire(100);
+			budget.release(40);
+			// nothing is accounted until the event loop runs the updates
+			assertThat(global.usedBytes()).isZero();
+
+			blocked.countDown();
+			channel.eventLoop()
+			       .submit(() -> { })
+			       .syncUninterruptibly();
+			assertThat(budget.used).isEqualTo(60L);
+			assertThat(global.usedBytes()).isEqualTo(60L);
+		}
+		finally {
+			channel.close()
+			       .syncUninterruptibly();
+			group.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+		}
+		assertThat(global.usedBytes()).isZero();
+	}
+
+	@Test
+	public void fileRegionsAreNotCharged() {
+		FileRegion region = new DefaultFileRegion(new File("unused"), 0, 1L << 30);
+		assertThat(ConnectionBudget.size(region)).isZero();
+	}
+
+	@Test
+	public void budgetIsReleasedOnceDataIsConsumed() {
+		MemoryBudget budget = MemoryBudget.create(1024 * 1024, 64 * 1024);
+		DisposableServer server =
+				TcpServer.create()
+				         .port(0)
+				         .memoryBudget(budget)
+				         // the echo never completes, flush each write rather than on
+				         // completion or once the channel is not writable
+				         .handle((in, out) -> out.options(NettyPipeline.SendOptions::flushOnEach)
+				                                 .send(in.receive()
+				                                         .retain()))
+				         .bindNow();
+
+		byte[] chunk = new byte[8 * 1024];
+		Connection client =
+				TcpClient.create()
+				         .port(server.port())
+				         .memoryBudget(budget)
+				         .connectNow();
+
+		client.outbound()
+		      .sendByteArray(Flux.range(0, 128)
+		                         .map(i -> chunk))
+		      .then()
+		      .subscribe();
+
+		Long received =
+				client.inbound()
+				      .receive()
+				      .map(ByteBuf::readableBytes)
+				      .scan(0L, (total, n) -> total + n)
+				      .takeUntil(total -> total == 128L * chunk.length)
+				      .blockLast(Duration.ofSeconds(30));
+
+		assertThat(received).isEqualTo(128L * chunk.length);
+
+		client.disposeNow();
+		server.disposeNow();
+		Mono.fromCallable(budget::usedBytes)
+		    .filter(used -> used == 0L)
+		    .repeatWhenEmpty(100, attempts -> attempts.delayElements(Duration.ofMillis(50)))
+		    .block(Duration.ofSeconds(30));
+	}
+}
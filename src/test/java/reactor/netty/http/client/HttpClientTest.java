@@ -19,6 +19,7 @@ package reactor.netty.http.client;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ServerSocketChannel;
@@ -70,6 +71,7 @@ import reactor.netty.NettyPipeline;
 import reactor.netty.SocketUtils;
 import reactor.netty.channel.AbortedException;
 import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionPoolMetricsRecorder;
 import reactor.netty.resources.ConnectionProvider;
 import reactor.netty.resources.LoopResources;
 import reactor.netty.tcp.SslProvider;
@@ -743,6 +745,51 @@ public class HttpClientTest {
 		assertThat(responseString).isEqualTo("hello /foo");
 	}
 
+	@Test
+	public void sslWarmupReusesConnections() throws CertificateException, SSLException {
+		SelfSignedCertificate ssc = new SelfSignedCertificate();
+		SslContext sslServer = SslContextBuilder.forServer(ssc.certificate(), ssc.privateKey()).build();
+		SslContext sslClient = SslContextBuilder.forClient()
+		                                        .trustManager(InsecureTrustManagerFactory.INSTANCE).build();
+
+		DisposableServer context =
+				HttpServer.create()
+				          .secure(ssl -> ssl.sslContext(sslServer))
+				          .handle((req, resp) -> resp.sendString(Flux.just("hello ", req.uri())))
+				          .wiretap(true)
+				          .bindNow();
+
+		AtomicInteger created = new AtomicInteger();
+		ConnectionProvider pool =
+				ConnectionProvider.builder("sslWarmupReusesConnections")
+				                  .maxConnections(2)
+				                  .metrics(new ConnectionPoolMetricsRecorder() {
+					                  @Override
+					                  public void recordConnectionCreated(String poolName, SocketAddress remoteAddress) {
+						                  created.incrementAndGet();
+					                  }
+				                  })
+				                  .build();
+		HttpClient client = createHttpClientForContextWithAddress(context, pool)
+		                            .secure(ssl -> ssl.sslContext(sslClient));
+
+		client.warmup(2)
+		      .block(Duration.ofSeconds(30));
+		assertThat(created.get()).isEqualTo(2);
+
+		StepVerifier.create(Flux.range(0, 2)
+		                        .flatMap(i -> client.get()
+		                                            .uri("/foo")
+		                                            .responseSingle((res, buf) -> buf.asString(CharsetUtil.UTF_8))))
+		            .expectNext("hello /foo", "hello /foo")
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(30));
+		assertThat(created.get()).isEqualTo(2);
+
+		context.disposeNow();
+		pool.dispose();
+	}
+
 	@Test
 	public void secureSendFile()
 			throws CertificateException, SSLException, URISyntaxException {
@@ -43,6 +43,8 @@ import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.codec.LineBasedFrameDecoder;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
 import io.netty.handler.codec.http.DefaultHttpContent;
@@ -56,17 +58,28 @@ import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpServerCodec;
 import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http2.DefaultHttp2DataFrame;
+import io.netty.handler.codec.http2.DefaultHttp2Headers;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersFrame;
+import io.netty.handler.codec.http2.Http2DataFrame;
+import io.netty.handler.codec.http2.Http2MultiplexCodec;
+import io.netty.handler.codec.http2.Http2MultiplexCodecBuilder;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamChannelBootstrap;
 import io.netty.util.ReferenceCountUtil;
 import org.junit.Test;
 import org.reactivestreams.Publisher;
 import org.testng.Assert;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import reactor.netty.ByteBufFlux;
 import reactor.netty.ChannelBindException;
 import reactor.netty.Connection;
 import reactor.netty.DisposableServer;
 import reactor.netty.FutureMono;
+import reactor.netty.NettyPipeline;
 import reactor.netty.NettyOutbound;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.http.client.HttpClientRequest;
@@ -1062,4 +1075,195 @@ public class HttpServerTests {
 
 		disposableServer.disposeNow();
 	}
+
+	@Test
+	public void disposeGracefullyLetsInFlightRequestsComplete() throws Exception {
+		CountDownLatch received = new CountDownLatch(1);
+		DisposableServer disposableServer =
+				HttpServer.create()
+				          .port(0)
+				          .handle((req, res) -> {
+				              received.countDown();
+				              return Mono.delay(Duration.ofMillis(500))
+				                         .then(res.sendString(Mono.just("done"))
+				                                  .then());
+				          })
+				          .bindNow();
+
+		Mono<String> response =
+				HttpClient.create(ConnectionProvider.fixed("drain", 1))
+				          .port(disposableServer.port())
+				          .get()
+				          .uri("/")
+				          .responseSingle((res, body) ->
+				                  body.asString()
+				                      .map(content -> res.responseHeaders()
+				                                         .get(HttpHeaderNames.CONNECTION) + " " + content))
+				          .cache();
+		response.subscribe();
+
+		assertThat(received.await(30, TimeUnit.SECONDS)).isTrue();
+
+		disposableServer.disposeGracefully(Duration.ofSeconds(10))
+		                .block(Duration.ofSeconds(30));
+
+		assertThat(disposableServer.channel().isOpen()).isFalse();
+		assertThat(response.block(Duration.ofSeconds(30))).isEqualTo("close done");
+	}
+
+	@Test
+	public void disposeGracefullyClosesConnectionsAfterTimeout() throws Exception {
+		CountDownLatch received = new CountDownLatch(1);
+		DisposableServer disposableServer =
+				HttpServer.create()
+				          .port(0)
+				          .handle((req, res) -> {
+				              received.countDown();
+				              return Mono.never();
+				          })
+				          .bindNow();
+
+		Mono<String> response =
+				HttpClient.create(ConnectionProvider.fixed("drain", 1))
+				          .port(disposableServer.port())
+				          .get()
+				          .uri("/")
+				          .responseContent()
+				          .aggregate()
+				          .asString()
+				          .cache();
+		response.subscribe(null, e -> {});
+
+		assertThat(received.await(30, TimeUnit.SECONDS)).isTrue();
+
+		StepVerifier.create(disposableServer.disposeGracefully(Duration.ofMillis(200)))
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(30));
+
+		StepVerifier.create(response)
+		            .expectError()
+		            .verify(Duration.ofSeconds(30));
+	}
+
+	@Test
+	public void drainSendsGoAwayAndClosesH2ConnectionOnceStreamsComplete() {
+		EmbeddedChannel server = new EmbeddedChannel(
+				Http2MultiplexCodecBuilder.forServer(new ChannelInitializer<Channel>() {
+					@Override
+					protected void initChannel(Channel ch) {
+						ch.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+							@Override
+							public void channelRead(ChannelHandlerContext ctx, Object msg) {
+								if (msg instanceof Http2DataFrame && ((Http2DataFrame) msg).isEndStream()) {
+									ctx.writeAndFlush(new DefaultHttp2HeadersFrame(
+											new DefaultHttp2Headers().status("200"), true));
+								}
+								ReferenceCountUtil.release(msg);
+							}
+						});
+					}
+				}).build(),
+				Http2DrainHandler.INSTANCE);
+		EmbeddedChannel client = new EmbeddedChannel(
+				Http2MultiplexCodecBuilder.forClient(new ChannelInitializer<Channel>() {
+					@Override
+					protected void initChannel(Channel ch) {
+					}
+				}).build());
+		exchange(client, server);
+
+		Http2StreamChannel stream = new Http2StreamChannelBootstrap(client).open()
+		                                                                   .syncUninterruptibly()
+		                                                                   .getNow();
+		stream.writeAndFlush(new DefaultHttp2HeadersFrame(
+				new DefaultHttp2Headers().method("GET").scheme("http").path("/"), false));
+		exchange(client, server);
+
+		server.pipeline().fireUserEventTriggered(NettyPipeline.DrainEvent.INSTANCE);
+		exchange(client, server);
+		assertThat(server.pipeline().get(Http2MultiplexCodec.class).connection().goAwaySent()).isTrue();
+		assertThat(server.isOpen()).isTrue();
+
+		stream.writeAndFlush(new DefaultHttp2DataFrame(true));
+		exchange(client, server);
+		server.runPendingTasks();
+		assertThat(server.isOpen()).isFalse();
+
+		client.finishAndReleaseAll();
+		server.finishAndReleaseAll();
+	}
+
+	private static void exchange(EmbeddedChannel client, EmbeddedChannel server) {
+		for (int i = 0; i < 4; i++) {
+			Object msg;
+			while ((msg = client.readOutbound()) != null) {
+				if (server.isOpen()) {
+					server.writeInbound(msg);
+				}
+				else {
+					ReferenceCountUtil.release(msg);
+				}
+			}
+			server.runPendingTasks();
+			while ((msg = server.readOutbound()) != null) {
+				client.writeInbound(msg);
+			}
+			client.runPendingTasks();
+		}
+	}
+
+	@Test
+	public void offloadRunsHandlerOffTheEventLoopAndRejectsOverflow() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Scheduler scheduler = Schedulers.newSingle("offload");
+		DisposableServer disposableServer =
+				HttpServer.create()
+				          .port(0)
+				          .offload(scheduler, 1)
+				          .handle((req, res) -> {
+				              started.countDown();
+				              try {
+				                  release.await(30, TimeUnit.SECONDS);
+				              }
+				              catch (InterruptedException e) {
+				                  return Mono.error(e);
+				              }
+				              return res.sendString(Mono.just(Thread.currentThread().getName()));
+				          })
+				          .bindNow();
+
+		HttpClient client =
+				HttpClient.create(ConnectionProvider.fixed("offload", 3))
+				          .port(disposableServer.port());
+		Flux<String> first = request(client).cache();
+		first.subscribe();
+		assertThat(started.await(30, TimeUnit.SECONDS)).isTrue();
+
+		// one request waits for the blocked worker, the other one overflows
+		Flux<String> others = Flux.merge(request(client), request(client)).cache();
+		StepVerifier.create(others.take(1))
+		            .expectNext("503 ")
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(30));
+
+		release.countDown();
+		StepVerifier.create(Flux.concat(first, others.skip(1)))
+		            .expectNextMatches(s -> s.startsWith("200 offload-"))
+		            .expectNextMatches(s -> s.startsWith("200 offload-"))
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(30));
+
+		disposableServer.disposeNow();
+		scheduler.dispose();
+	}
+
+	private static Flux<String> request(HttpClient client) {
+		return client.get()
+		             .uri("/")
+		             .responseSingle((res, body) -> body.asString()
+		                                                .defaultIfEmpty("")
+		                                                .map(s -> res.status().code() + " " + s))
+		             .flux();
+	}
 }
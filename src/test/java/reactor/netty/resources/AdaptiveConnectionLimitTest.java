@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.resources;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConnectionLimitTest {
+
+	@Test
+	public void growsWhenSaturatedAndFast() {
+		AdaptiveConnectionLimit limit = new AdaptiveConnectionLimit(1, 2, 4);
+
+		// not saturated, nothing to learn
+		limit.onSample(1_000, 1);
+		assertThat(limit.limit()).isEqualTo(2);
+
+		// 2 + 1/2 + 1/2.5 + 1/2.9
+		for (int i = 0; i < 3; i++) {
+			limit.onSample(1_000, 2);
+		}
+		assertThat(limit.limit()).isEqualTo(3);
+
+		for (int i = 0; i < 100; i++) {
+			limit.onSample(1_000, limit.limit());
+		}
+		assertThat(limit.limit()).isEqualTo(4);
+	}
+
+	@Test
+	public void shrinksWhenSlowOrFailing() {
+		AdaptiveConnectionLimit limit = new AdaptiveConnectionLimit(2, 10, 10);
+
+		limit.onSample(1_000, 1);
+		limit.onSample(5_000, 1);
+		assertThat(limit.limit()).isEqualTo(9);
+
+		limit.onDrop();
+		assertThat(limit.limit()).isEqualTo(8);
+
+		for (int i = 0; i < 100; i++) {
+			limit.onDrop();
+		}
+		assertThat(limit.limit()).isEqualTo(2);
+	}
+
+	@Test
+	public void minLeaseTimeIsReestimatedPerWindow() {
+		AdaptiveConnectionLimit limit = new AdaptiveConnectionLimit(1, 5, 10);
+
+		limit.onSample(1_000, 1);
+		for (int i = 1; i < AdaptiveConnectionLimit.WINDOW; i++) {
+			limit.onSample(1_500, 1);
+		}
+		assertThat(limit.minRttNanos).isEqualTo(1_000);
+
+		// the remote got durably slower
+		for (int i = 0; i < AdaptiveConnectionLimit.WINDOW; i++) {
+			limit.onSample(1_500, 1);
+		}
+		assertThat(limit.minRttNanos).isEqualTo(1_500);
+		assertThat(limit.limit()).isEqualTo(5);
+	}
+}
@@ -16,11 +16,20 @@
 package reactor.netty.resources;
 
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+import io.netty.channel.socket.nio.NioSocketChannel;
 import org.junit.Test;
 import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.DisposableServer;
+import reactor.netty.tcp.TcpClient;
 import reactor.netty.tcp.TcpResources;
+import reactor.netty.tcp.TcpServer;
 import reactor.test.StepVerifier;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -77,6 +86,82 @@ public class DefaultLoopResourcesTest {
 		assertThat(resources.isDisposed()).isTrue();
 	}
 
+	@Test
+	public void metricsRecorderObservesEventLoops() throws Exception {
+		Map<String, EventLoopMetrics> loops = new ConcurrentHashMap<>();
+		CountDownLatch delays = new CountDownLatch(2);
+		LoopResources loopResources = LoopResources.create("metrics", 2, true,
+				new EventLoopMetricsRecorder() {
+					@Override
+					public void registerEventLoop(String loopName, EventLoopMetrics metrics) {
+						loops.put(loopName, metrics);
+					}
+
+					@Override
+					public void unregisterEventLoop(String loopName, EventLoopMetrics metrics) {
+						loops.remove(loopName);
+					}
+
+					@Override
+					public void recordTaskSchedulingDelay(String loopName, Duration delay) {
+						assertThat(delay).isGreaterThanOrEqualTo(Duration.ZERO);
+						delays.countDown();
+					}
+				});
+
+		DisposableServer server =
+				TcpServer.create()
+				         .port(0)
+				         .runOn(loopResources)
+				         .bindNow();
+
+		assertThat(loops).hasSize(2);
+
+		Connection client =
+				TcpClient.newConnection()
+				         .port(server.port())
+				         .runOn(loopResources)
+				         .connectNow();
+
+		// server channel, client channel and the accepted channel once registered
+		assertThat(loops.values()
+		                .stream()
+		                .mapToInt(EventLoopMetrics::registeredChannels)
+		                .sum()).isBetween(2, 3);
+		assertThat(loops.values()).allSatisfy(m -> assertThat(m.pendingTasks()).isGreaterThanOrEqualTo(0));
+		assertThat(delays.await(5, TimeUnit.SECONDS)).isTrue();
+
+		client.disposeNow();
+		server.disposeNow();
+		loopResources.disposeLater()
+		             .block(Duration.ofSeconds(30));
+		assertThat(loops).isEmpty();
+	}
+
+	@Test
+	public void leastLoadedRegistersOnLoopWithFewestChannels() throws Exception {
+		DefaultLoopResources loopResources =
+				(DefaultLoopResources) LoopResources.leastLoaded("least", 2, true);
+		MonitoredEventLoopGroup group = (MonitoredEventLoopGroup) loopResources.onServer(false);
+
+		MonitoredEventLoopGroup.LoopMonitor busy = group.monitors[0];
+		busy.channels.set(10);
+		for (int i = 0; i < 8; i++) {
+			assertThat(group.next()).isSameAs(group.monitors[1].executor);
+		}
+
+		busy.channels.set(0);
+		for (int i = 0; i < 4; i++) {
+			group.register(new NioSocketChannel())
+			     .sync();
+		}
+		assertThat(group.monitors[0].registeredChannels()).isEqualTo(2);
+		assertThat(group.monitors[1].registeredChannels()).isEqualTo(2);
+
+		loopResources.disposeLater()
+		             .block(Duration.ofSeconds(30));
+	}
+
 	static final class TestResources extends TcpResources {
 		final LoopResources loops;
 		final ConnectionProvider provider;
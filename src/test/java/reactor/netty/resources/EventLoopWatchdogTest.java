@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2011-2019 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.resources;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.netty.channel.nio.NioEventLoopGroup;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventLoopWatchdogTest {
+
+	@Test
+	public void reportsBlockedEventLoopWithItsStackTrace() throws Exception {
+		AtomicReference<BlockedEventLoopException> blocked = new AtomicReference<>();
+		CountDownLatch reported = new CountDownLatch(1);
+		EventLoopWatchdog watchdog =
+				EventLoopWatchdog.create(Duration.ofMillis(100), e -> {
+					blocked.set(e);
+					reported.countDown();
+				});
+		NioEventLoopGroup group = new NioEventLoopGroup(1, (ThreadFactory) r -> new Thread(r, "watched-loop"));
+		try {
+			watchdog.watch(group);
+			// the first heartbeat has run before watch returns
+			assertThat(watchdog.heartbeats).allMatch(h -> h.thread != null);
+
+			CountDownLatch release = new CountDownLatch(1);
+			group.execute(() -> {
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+
+			assertThat(reported.await(5, TimeUnit.SECONDS)).isTrue();
+			release.countDown();
+
+			BlockedEventLoopException e = blocked.get();
+			assertThat(e.threadName()).isEqualTo("watched-loop");
+			assertThat(e.blockedTime()).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+			assertThat(Arrays.stream(e.getStackTrace())
+			                 .map(StackTraceElement::getClassName)
+			                 .anyMatch(name -> name.startsWith(EventLoopWatchdogTest.class.getName())))
+					.isTrue();
+		}
+		finally {
+			watchdog.dispose();
+			group.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	public void idleEventLoopIsNotReported() throws Exception {
+		CountDownLatch reported = new CountDownLatch(1);
+		EventLoopWatchdog watchdog =
+				EventLoopWatchdog.create(Duration.ofMillis(100), e -> reported.countDown());
+		NioEventLoopGroup group = new NioEventLoopGroup(1);
+		try {
+			watchdog.watch(group);
+
+			assertThat(reported.await(500, TimeUnit.MILLISECONDS)).isFalse();
+		}
+		finally {
+			watchdog.dispose();
+			group.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+		}
+		assertThat(watchdog.isDisposed()).isTrue();
+	}
+
+	@Test
+	public void disposeCancelsHeartbeats() {
+		EventLoopWatchdog watchdog =
+				EventLoopWatchdog.create(Duration.ofMillis(100), e -> {});
+		NioEventLoopGroup group = new NioEventLoopGroup(2);
+		try {
+			watchdog.watch(group);
+			List<EventLoopWatchdog.Heartbeat> heartbeats = new ArrayList<>(watchdog.heartbeats);
+			assertThat(heartbeats).hasSize(2);
+
+			watchdog.dispose();
+
+			assertThat(watchdog.heartbeats).isEmpty();
+			assertThat(heartbeats).allMatch(h -> h.future.isCancelled());
+		}
+		finally {
+			watchdog.dispose();
+			group.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+		}
+	}
+}
@@ -17,18 +17,31 @@ package reactor.netty.resources;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.LockSupport;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoop;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.pool.ChannelPool;
 import io.netty.channel.socket.nio.NioSocketChannel;
@@ -36,12 +49,21 @@ import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.Promise;
 import org.junit.Before;
 import org.junit.Test;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.publisher.ReplayProcessor;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.Connection;
 import reactor.netty.ConnectionObserver;
+import reactor.netty.DisposableServer;
 import reactor.netty.SocketUtils;
+import reactor.netty.channel.BootstrapHandlers;
 import reactor.netty.channel.ChannelOperations;
 import reactor.netty.resources.PooledConnectionProvider.PooledConnection;
+import reactor.netty.tcp.TcpClient;
 import reactor.netty.tcp.TcpClientTests;
+import reactor.netty.tcp.TcpServer;
 import reactor.test.StepVerifier;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -223,4 +245,720 @@ public class PooledConnectionProviderTest {
 		}
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void lockFreePoolReusesReleasedChannel() {
+		DisposableServer server = TcpServer.create()
+		                                   .port(0)
+		                                   .bindNow();
+		NioEventLoopGroup group = new NioEventLoopGroup(2);
+		ConnectionProvider provider =
+				ConnectionProvider.builder("lockFreePoolReusesReleasedChannel")
+				                  .maxConnections(1)
+				                  .acquireTimeout(Duration.ofMillis(100))
+				                  .build();
+		try {
+			Bootstrap bootstrap = new Bootstrap().remoteAddress(server.address())
+			                                     .channelFactory(NioSocketChannel::new)
+			                                     .group(group);
+
+			PooledConnection c1 = (PooledConnection) provider.acquire(bootstrap)
+			                                                 .block(Duration.ofSeconds(30));
+			assertThat(c1).isNotNull();
+			assertThat(c1.pool.pool).isInstanceOf(LockFreeChannelPool.class);
+
+			StepVerifier.create(provider.acquire(bootstrap))
+			            .expectError(TimeoutException.class)
+			            .verify(Duration.ofSeconds(30));
+
+			LockFreeChannelPool channelPool = (LockFreeChannelPool) c1.pool.pool;
+			assertThat(channelPool.pendingSize()).isEqualTo(0);
+			assertThat(channelPool.acquiredSize()).isEqualTo(1);
+
+			c1.onStateChange(c1, ConnectionObserver.State.DISCONNECTING);
+			assertThat(channelPool.acquiredSize()).isEqualTo(0);
+			assertThat(channelPool.idleSize()).isEqualTo(1);
+
+			PooledConnection c2 = (PooledConnection) provider.acquire(bootstrap)
+			                                                 .block(Duration.ofSeconds(30));
+			assertThat(c2).isNotNull();
+			assertThat(c2.channel()).isSameAs(c1.channel());
+			assertThat(channelPool.acquiredSize()).isEqualTo(1);
+			assertThat(channelPool.idleSize()).isEqualTo(0);
+		}
+		finally {
+			provider.dispose();
+			server.disposeNow();
+			group.shutdownGracefully();
+		}
+	}
+
+	@Test
+	public void lockFreePoolLeasesFromCallingEventLoop() {
+		DisposableServer server = TcpServer.create()
+		                                   .port(0)
+		                                   .bindNow();
+		NioEventLoopGroup group = new NioEventLoopGroup(2);
+		ConnectionProvider provider =
+				ConnectionProvider.builder("lockFreePoolLeasesFromCallingEventLoop")
+				                  .eventLoopAffinity(true)
+				                  .build();
+		try {
+			Bootstrap bootstrap = new Bootstrap().remoteAddress(server.address())
+			                                     .channelFactory(NioSocketChannel::new)
+			                                     .group(group);
+			EventLoop loop1 = group.next();
+			EventLoop loop2 = group.next();
+			assertThat(loop1).isNotSameAs(loop2);
+
+			PooledConnection c1 = acquireOn(provider, bootstrap, loop1);
+			PooledConnection c2 = acquireOn(provider, bootstrap, loop2);
+			assertThat(c1.channel().eventLoop()).isSameAs(loop1);
+			assertThat(c2.channel().eventLoop()).isSameAs(loop2);
+
+			c1.onStateChange(c1, ConnectionObserver.State.DISCONNECTING);
+			c2.onStateChange(c2, ConnectionObserver.State.DISCONNECTING);
+
+			assertThat(acquireOn(provider, bootstrap, loop2).channel()).isSameAs(c2.channel());
+			assertThat(acquireOn(provider, bootstrap, loop1).channel()).isSameAs(c1.channel());
+		}
+		finally {
+			provider.dispose();
+			server.disposeNow();
+			group.shutdownGracefully();
+		}
+	}
+
+	@Test
+	public void lockFreePoolEvictsExpiredChannels() throws Exception {
+		DisposableServer server = TcpServer.create()
+		                                   .port(0)
+		                                   .bindNow();
+		NioEventLoopGroup group = new NioEventLoopGroup(2);
+		ConnectionProvider idleProvider =
+				ConnectionProvider.builder("lockFreePoolEvictsIdleChannels")
+				                  .maxIdleTime(Duration.ofMillis(50))
+				                  .evictionInterval(Duration.ofMillis(20))
+				                  .build();
+		ConnectionProvider lifeProvider =
+				ConnectionProvider.builder("lockFreePoolEvictsOldChannels")
+				                  .maxLifeTime(Duration.ofMillis(50))
+				                  .build();
+		try {
+			Bootstrap bootstrap = new Bootstrap().remoteAddress(server.address())
+			                                     .channelFactory(NioSocketChannel::new)
+			                                     .group(group);
+
+			PooledConnection c1 = (PooledConnection) idleProvider.acquire(bootstrap)
+			                                                     .block(Duration.ofSeconds(30));
+			assertThat(c1).isNotNull();
+			c1.onStateChange(c1, ConnectionObserver.State.DISCONNECTING);
+			assertThat(((LockFreeChannelPool) c1.pool.pool).idleSize()).isEqualTo(1);
+			assertThat(c1.channel().closeFuture().await(5, TimeUnit.SECONDS))
+					.as("idle channel evicted in background")
+					.isTrue();
+			assertThat(((LockFreeChannelPool) c1.pool.pool).idleSize()).isEqualTo(0);
+
+			PooledConnection c2 = (PooledConnection) lifeProvider.acquire(bootstrap)
+			                                                     .block(Duration.ofSeconds(30));
+			assertThat(c2).isNotNull();
+			Thread.sleep(100);
+			c2.onStateChange(c2, ConnectionObserver.State.DISCONNECTING);
+			assertThat(c2.channel().closeFuture().await(5, TimeUnit.SECONDS))
+					.as("channel closed when released after its max life time")
+					.isTrue();
+
+			PooledConnection c3 = (PooledConnection) lifeProvider.acquire(bootstrap)
+			                                                     .block(Duration.ofSeconds(30));
+			assertThat(c3).isNotNull();
+			assertThat(c3.channel()).isNotSameAs(c2.channel());
+		}
+		finally {
+			idleProvider.dispose();
+			lifeProvider.dispose();
+			server.disposeNow();
+			group.shutdownGracefully();
+		}
+	}
+
+	@Test
+	public void lockFreePoolReportsMetrics() {
+		DisposableServer server = TcpServer.create()
+		                                   .port(0)
+		                                   .bindNow();
+		NioEventLoopGroup group = new NioEventLoopGroup(2);
+		AtomicInteger created = new AtomicInteger();
+		AtomicInteger closed = new AtomicInteger();
+		AtomicInteger acquired = new AtomicInteger();
+		AtomicInteger timeouts = new AtomicInteger();
+		AtomicReference<ConnectionPoolMetrics> metrics = new AtomicReference<>();
+		ConnectionProvider provider =
+				ConnectionProvider.builder("lockFreePoolReportsMetrics")
+				                  .maxConnections(1)
+				                  .acquireTimeout(Duration.ofMillis(100))
+				                  .metrics(new ConnectionPoolMetricsRecorder() {
+					                  @Override
+					                  public void registerPool(String poolName, SocketAddress remoteAddress, ConnectionPoolMetrics m) {
+						                  metrics.set(m);
+					                  }
+
+					                  @Override
+					                  public void recordAcquireTime(String poolName, SocketAddress remoteAddress, Duration time) {
+						                  acquired.incrementAndGet();
+					                  }
+
+					                  @Override
+					                  public void recordAcquireTimeout(String poolName, SocketAddress remoteAddress) {
+						                  timeouts.incrementAndGet();
+					                  }
+
+					                  @Override
+					                  public void recordConnectionCreated(String poolName, SocketAddress remoteAddress) {
+						                  created.incrementAndGet();
+					                  }
+
+					                  @Override
+					                  public void recordConnectionClosed(String poolName, SocketAddress remoteAddress) {
+						                  closed.incrementAndGet();
+					                  }
+				                  })
+				                  .build();
+		try {
+			Bootstrap bootstrap = new Bootstrap().remoteAddress(server.address())
+			                                     .channelFactory(NioSocketChannel::new)
+			                                     .group(group);
+
+			PooledConnection c1 = (PooledConnection) provider.acquire(bootstrap)
+			                                                 .block(Duration.ofSeconds(30));
+			assertThat(c1).isNotNull();
+			assertThat(metrics.get()).isNotNull();
+			assertThat(metrics.get().acquiredSize()).isEqualTo(1);
+			assertThat(metrics.get().maxAllocatedSize()).isEqualTo(1);
+
+			StepVerifier.create(provider.acquire(bootstrap))
+			            .expectError(TimeoutException.class)
+			            .verify(Duration.ofSeconds(30));
+
+			c1.onStateChange(c1, ConnectionObserver.State.DISCONNECTING);
+			assertThat(metrics.get().acquiredSize()).isEqualTo(0);
+			assertThat(metrics.get().idleSize()).isEqualTo(1);
+
+			c1.channel()
+			  .close()
+			  .awaitUninterruptibly(5, TimeUnit.SECONDS);
+
+			assertThat(created.get()).isEqualTo(1);
+			assertThat(closed.get()).isEqualTo(1);
+			assertThat(acquired.get()).isEqualTo(1);
+			assertThat(timeouts.get()).isEqualTo(1);
+		}
+		finally {
+			provider.dispose();
+			server.disposeNow();
+			group.shutdownGracefully();
+		}
+	}
+
+	@Test
+	public void poolsForTheSameAddressRegisterDistinctMetrics() {
+		NioEventLoopGroup group = new NioEventLoopGroup(1);
+		List<String> registered = new CopyOnWriteArrayList<>();
+		List<String> unregistered = new CopyOnWriteArrayList<>();
+		PooledConnectionProvider provider = (PooledConnectionProvider)
+				ConnectionProvider.builder("poolsForTheSameAddressRegisterDistinctMetrics")
+				                  .maxConnections(1)
+				                  .metrics(new ConnectionPoolMetricsRecorder() {
+					                  @Override
+					                  public void registerPool(String poolName, SocketAddress remoteAddress, ConnectionPoolMetrics m) {
+						                  registered.add(m.id());
+					                  }
+
+					                  @Override
+					                  public void unregisterPool(String poolName, SocketAddress remoteAddress, ConnectionPoolMetrics m) {
+						                  unregistered.add(m.id());
+					                  }
+				                  })
+				                  .build();
+		try {
+			InetSocketAddress address = InetSocketAddress.createUnresolved("example.com", 80);
+			Bootstrap b1 = new Bootstrap().remoteAddress(address)
+			                              .channelFactory(NioSocketChannel::new)
+			                              .group(group)
+			                              .handler(new ChannelDuplexHandler());
+			Bootstrap b2 = b1.clone()
+			                 .handler(new ChannelDuplexHandler());
+
+			PooledConnectionProvider.Pool p1 = provider.getOrCreatePool(b1, ChannelOperations.OnSetup.empty());
+			PooledConnectionProvider.Pool p2 = provider.getOrCreatePool(b2, ChannelOperations.OnSetup.empty());
+			assertThat(provider.getOrCreatePool(b1, ChannelOperations.OnSetup.empty())).isSameAs(p1);
+			assertThat(p1).isNotSameAs(p2);
+			assertThat(registered).containsExactly(p1.id(), p2.id());
+			assertThat(p1.id()).isNotEqualTo(p2.id());
+
+			provider.disposeLater()
+			        .block(Duration.ofSeconds(30));
+			assertThat(unregistered).containsExactlyInAnyOrder(p1.id(), p2.id());
+		}
+		finally {
+			provider.dispose();
+			group.shutdownGracefully();
+		}
+	}
+
+	@Test
+	public void warmupOpensConnectionsAhead() {
+		warmupOpensConnectionsAhead(ConnectionProvider.fixed("warmupFixed", 4));
+		warmupOpensConnectionsAhead(ConnectionProvider.builder("warmupLockFree")
+		                                              .maxConnections(4)
+		                                              .build());
+	}
+
+	private void warmupOpensConnectionsAhead(ConnectionProvider provider) {
+		AtomicInteger accepted = new AtomicInteger();
+		DisposableServer server = TcpServer.create()
+		                                   .port(0)
+		                                   .doOnConnection(c -> accepted.incrementAndGet())
+		                                   .bindNow();
+		try {
+			TcpClient client = TcpClient.create(provider)
+			                            .addressSupplier(server::address);
+
+			client.warmup(3)
+			      .block(Duration.ofSeconds(30));
+			// already allocated connections count towards the requested number
+			client.warmup(3)
+			      .block(Duration.ofSeconds(30));
+			// capped by the max connections
+			client.warmup(10)
+			      .block(Duration.ofSeconds(30));
+
+			List<? extends Connection> connections =
+					Flux.range(0, 4)
+					    .flatMap(i -> client.connect())
+					    .collectList()
+					    .block(Duration.ofSeconds(30));
+			assertThat(connections).hasSize(4);
+
+			assertThat(accepted.get()).isEqualTo(4);
+		}
+		finally {
+			provider.dispose();
+			server.disposeNow();
+		}
+	}
+
+	@Test
+	public void warmedConnectionClosedWhileIdleLeavesThePool() throws Exception {
+		DisposableServer server = TcpServer.create()
+		                                   .port(0)
+		                                   .bindNow();
+		PooledConnectionProvider provider = (PooledConnectionProvider)
+				ConnectionProvider.fixed("warmedConnectionClosedWhileIdleLeavesThePool", 2);
+		List<Channel> channels = new CopyOnWriteArrayList<>();
+		try {
+			TcpClient client =
+					TcpClient.create(provider)
+					         .addressSupplier(server::address)
+					         .bootstrap(b -> BootstrapHandlers.updateConfiguration(b, "test",
+					                 (obs, ch) -> channels.add(ch)));
+
+			client.warmup(2)
+			      .block(Duration.ofSeconds(30));
+			PooledConnectionProvider.Pool pool = provider.channelPools.values()
+			                                                          .iterator()
+			                                                          .next();
+			// warmed channels are released asynchronously
+			while (pool.idleSize() < 2) {
+				Thread.sleep(10);
+			}
+
+			// closed before any acquire
+			channels.forEach(Channel::close);
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (pool.idleSize() > 0 && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			assertThat(pool.idleSize()).isZero();
+			assertThat(pool.acquiredSize()).isZero();
+		}
+		finally {
+			provider.dispose();
+			server.disposeNow();
+		}
+	}
+
+	@Test
+	public void disposeWhenUsesAddressIndex() {
+		DisposableServer server1 = TcpServer.create()
+		                                    .port(0)
+		                                    .bindNow();
+		DisposableServer server2 = TcpServer.create()
+		                                    .port(0)
+		                                    .bindNow();
+		NioEventLoopGroup group = new NioEventLoopGroup(1);
+		PooledConnectionProvider provider =
+				(PooledConnectionProvider) ConnectionProvider.builder("disposeWhenUsesAddressIndex")
+				                                             .build();
+		try {
+			InetSocketAddress address1 = new InetSocketAddress("127.0.0.1", server1.port());
+			InetSocketAddress address2 = new InetSocketAddress("127.0.0.1", server2.port());
+			for (InetSocketAddress address : new InetSocketAddress[]{address1, address2}) {
+				Connection c = provider.acquire(new Bootstrap().remoteAddress(address)
+				                                               .channelFactory(NioSocketChannel::new)
+				                                               .group(group))
+				                       .block(Duration.ofSeconds(30));
+				assertThat(c).isNotNull();
+			}
+			assertThat(provider.channelPools).hasSize(2);
+			assertThat(provider.poolKeys).hasSize(2);
+
+			provider.disposeWhen(address1);
+			assertThat(provider.channelPools).hasSize(1);
+			assertThat(provider.poolKeys).containsOnlyKeys(address2);
+
+			// wildcard addresses match on the port
+			provider.disposeWhen(new InetSocketAddress(server2.port()));
+			assertThat(provider.channelPools).isEmpty();
+			assertThat(provider.poolKeys).isEmpty();
+		}
+		finally {
+			provider.dispose();
+			server1.disposeNow();
+			server2.disposeNow();
+			group.shutdownGracefully();
+		}
+	}
+
+	@Test
+	public void pipelineEquivalenceSharesPool() {
+		assertThat(pipelinePools(false)).isEqualTo(2);
+		assertThat(pipelinePools(true)).isEqualTo(1);
+	}
+
+	private int pipelinePools(boolean pipelineEquivalence) {
+		DisposableServer server = TcpServer.create()
+		                                   .port(0)
+		                                   .bindNow();
+		NioEventLoopGroup group = new NioEventLoopGroup(1);
+		PooledConnectionProvider provider =
+				(PooledConnectionProvider) ConnectionProvider.builder("pipelineEquivalenceSharesPool")
+				                                             .pipelineEquivalence(pipelineEquivalence)
+				                                             .build();
+		try {
+			for (int i = 0; i < 2; i++) {
+				// capturing lambdas, equal in behaviour but not in identity
+				String handlerName = "handler";
+				Bootstrap bootstrap =
+						new Bootstrap().remoteAddress(server.address())
+						               .channelFactory(NioSocketChannel::new)
+						               .group(group);
+				BootstrapHandlers.updateConfiguration(bootstrap, "test",
+						(obs, ch) -> ch.pipeline().addLast(handlerName, new ChannelDuplexHandler()));
+				Connection c = provider.acquire(bootstrap)
+				                       .block(Duration.ofSeconds(30));
+				assertThat(c).isNotNull();
+				assertThat(c.channel().pipeline().get(handlerName)).isNotNull();
+			}
+			return provider.channelPools.size();
+		}
+		finally {
+			provider.dispose();
+			server.disposeNow();
+			group.shutdownGracefully();
+		}
+	}
+
+	@Test
+	public void lockFreePoolDropsTimedOutPendingAcquires() {
+		DisposableServer server = TcpServer.create()
+		                                   .port(0)
+		                                   .bindNow();
+		NioEventLoopGroup group = new NioEventLoopGroup(1);
+		ConnectionProvider provider =
+				ConnectionProvider.builder("lockFreePoolDropsTimedOutPendingAcquires")
+				                  .maxConnections(1)
+				                  .acquireTimeout(Duration.ofMillis(50))
+				                  .build();
+		try {
+			Bootstrap bootstrap = new Bootstrap().remoteAddress(server.address())
+			                                     .channelFactory(NioSocketChannel::new)
+			                                     .group(group);
+
+			PooledConnection c1 = (PooledConnection) provider.acquire(bootstrap)
+			                                                 .block(Duration.ofSeconds(30));
+			assertThat(c1).isNotNull();
+			LockFreeChannelPool channelPool = (LockFreeChannelPool) c1.pool.pool;
+
+			StepVerifier.create(Flux.range(0, 10)
+			                        .flatMap(i -> provider.acquire(bootstrap)
+			                                              .onErrorResume(TimeoutException.class,
+			                                                      e -> Mono.empty())))
+			            .expectComplete()
+			            .verify(Duration.ofSeconds(30));
+
+			// the pool stayed saturated, the timed out acquirers must not linger
+			assertThat(channelPool.pendingSize()).isZero();
+			assertThat(channelPool.pendingAcquires.peek()).isNull();
+		}
+		finally {
+			provider.dispose();
+			server.disposeNow();
+			group.shutdownGracefully();
+		}
+	}
+
+	@Test
+	public void lockFreePoolRejectsAcquiresBeyondPendingLimit() {
+		DisposableServer server = TcpServer.create()
+		                                   .port(0)
+		                                   .bindNow();
+		NioEventLoopGroup group = new NioEventLoopGroup(1);
+		ConnectionProvider provider =
+				ConnectionProvider.builder("lockFreePoolRejectsAcquiresBeyondPendingLimit")
+				                  .maxConnections(1)
+				                  .maxPendingAcquires(1)
+				                  .build();
+		try {
+			Bootstrap bootstrap = new Bootstrap().remoteAddress(server.address())
+			                                     .channelFactory(NioSocketChannel::new)
+			                                     .group(group);
+
+			PooledConnection c1 = (PooledConnection) provider.acquire(bootstrap)
+			                                                 .block(Duration.ofSeconds(30));
+			assertThat(c1).isNotNull();
+
+			MonoProcessor<Connection> pending = MonoProcessor.create();
+			provider.acquire(bootstrap)
+			        .subscribe(pending);
+
+			StepVerifier.create(provider.acquire(bootstrap))
+			            .expectErrorSatisfies(e ->
+			                    assertThat(e).isInstanceOf(PoolAcquirePendingLimitException.class)
+			                                 .hasMessageContaining("1"))
+			            .verify(Duration.ofSeconds(5));
+
+			assertThat(pending.isTerminated()).isFalse();
+			c1.onStateChange(c1, ConnectionObserver.State.DISCONNECTING);
+			assertThat(pending.block(Duration.ofSeconds(30))
+			                  .channel()).isSameAs(c1.channel());
+		}
+		finally {
+			provider.dispose();
+			server.disposeNow();
+			group.shutdownGracefully();
+		}
+	}
+
+	@Test
+	public void lockFreePoolLeaseOrdering() {
+		DisposableServer server = TcpServer.create()
+		                                   .port(0)
+		                                   .bindNow();
+		NioEventLoopGroup group = new NioEventLoopGroup(1);
+		try {
+			Bootstrap bootstrap = new Bootstrap().remoteAddress(server.address())
+			                                     .channelFactory(NioSocketChannel::new)
+			                                     .group(group);
+			assertThat(leaseAfterReleasingTwo(ConnectionProvider.builder("lifo").lifo(), bootstrap))
+					.isEqualTo(1);
+			assertThat(leaseAfterReleasingTwo(ConnectionProvider.builder("fifo").fifo(), bootstrap))
+					.isEqualTo(0);
+		}
+		finally {
+			server.disposeNow();
+			group.shutdownGracefully();
+		}
+	}
+
+	/**
+	 * Acquire two connections, release them in order and return the index of the one
+	 * leased next.
+	 */
+	private int leaseAfterReleasingTwo(ConnectionProvider.Builder builder, Bootstrap bootstrap) {
+		ConnectionProvider provider = builder.build();
+		try {
+			PooledConnection c1 = (PooledConnection) provider.acquire(bootstrap)
+			                                                 .block(Duration.ofSeconds(30));
+			PooledConnection c2 = (PooledConnection) provider.acquire(bootstrap)
+			                                                 .block(Duration.ofSeconds(30));
+			assertThat(c1).isNotNull();
+			assertThat(c2).isNotNull();
+			c1.onStateChange(c1, ConnectionObserver.State.DISCONNECTING);
+			c2.onStateChange(c2, ConnectionObserver.State.DISCONNECTING);
+
+			Connection c3 = provider.acquire(bootstrap)
+			                        .block(Duration.ofSeconds(30));
+			assertThat(c3).isNotNull();
+			return c3.channel() == c1.channel() ? 0 : 1;
+		}
+		finally {
+			provider.dispose();
+		}
+	}
+
+	@Test
+	public void lockFreePoolChecksIdleChannelsInBackground() throws Exception {
+		DisposableServer server = TcpServer.create()
+		                                   .port(0)
+		                                   .bindNow();
+		NioEventLoopGroup group = new NioEventLoopGroup(1);
+		Set<Channel> broken = ConcurrentHashMap.newKeySet();
+		AtomicInteger probes = new AtomicInteger();
+		ConnectionProvider provider =
+				ConnectionProvider.builder("lockFreePoolChecksIdleChannelsInBackground")
+				                  .healthCheck(ch -> {
+				                      probes.incrementAndGet();
+				                      Promise<Boolean> p = ch.eventLoop().newPromise();
+				                      // complete asynchronously, like an application ping
+				                      ch.eventLoop().execute(() -> p.setSuccess(!broken.contains(ch)));
+				                      return p;
+				                  }, Duration.ofMillis(50))
+				                  .build();
+		try {
+			Bootstrap bootstrap = new Bootstrap().remoteAddress(server.address())
+			                                     .channelFactory(NioSocketChannel::new)
+			                                     .group(group);
+
+			PooledConnection c1 = (PooledConnection) provider.acquire(bootstrap)
+			                                                 .block(Duration.ofSeconds(30));
+			PooledConnection c2 = (PooledConnection) provider.acquire(bootstrap)
+			                                                 .block(Duration.ofSeconds(30));
+			assertThat(c1).isNotNull();
+			assertThat(c2).isNotNull();
+			broken.add(c1.channel());
+			c1.onStateChange(c1, ConnectionObserver.State.DISCONNECTING);
+			c2.onStateChange(c2, ConnectionObserver.State.DISCONNECTING);
+
+			assertThat(c1.channel()
+			             .closeFuture()
+			             .await(5, TimeUnit.SECONDS)).isTrue();
+			while (probes.get() < 4) {
+				Thread.sleep(10);
+			}
+			assertThat(c2.channel().isActive()).isTrue();
+
+			Connection c3 = provider.acquire(bootstrap)
+			                        .block(Duration.ofSeconds(30));
+			assertThat(c3).isNotNull();
+			assertThat(c3.channel()).isSameAs(c2.channel());
+		}
+		finally {
+			provider.dispose();
+			server.disposeNow();
+			group.shutdownGracefully();
+		}
+	}
+
+	@Test
+	public void lockFreePoolFollowsAdaptiveLimit() {
+		DisposableServer server = TcpServer.create()
+		                                   .port(0)
+		                                   .bindNow();
+		NioEventLoopGroup group = new NioEventLoopGroup(1);
+		AtomicReference<ConnectionPoolMetrics> metrics = new AtomicReference<>();
+		ConnectionProvider provider =
+				ConnectionProvider.builder("lockFreePoolFollowsAdaptiveLimit")
+				                  .maxConnections(10)
+				                  .adaptiveMaxConnections(1, 1)
+				                  .metrics(new ConnectionPoolMetricsRecorder() {
+					                  @Override
+					                  public void registerPool(String poolName, SocketAddress remoteAddress, ConnectionPoolMetrics m) {
+						                  metrics.set(m);
+					                  }
+				                  })
+				                  .build();
+		try {
+			Bootstrap bootstrap = new Bootstrap().remoteAddress(server.address())
+			                                     .channelFactory(NioSocketChannel::new)
+			                                     .group(group);
+
+			PooledConnection c1 = (PooledConnection) provider.acquire(bootstrap)
+			                                                 .block(Duration.ofSeconds(30));
+			assertThat(c1).isNotNull();
+			assertThat(metrics.get().maxAllocatedSize()).isEqualTo(1);
+
+			// the limit is reached, a second acquire waits for the first lease
+			MonoProcessor<Connection> pending = MonoProcessor.create();
+			provider.acquire(bootstrap)
+			        .subscribe(pending);
+			assertThat(pending.isTerminated()).isFalse();
+
+			// a saturated and fast lease grows the limit
+			c1.onStateChange(c1, ConnectionObserver.State.DISCONNECTING);
+			assertThat(metrics.get().maxAllocatedSize()).isEqualTo(2);
+			assertThat(pending.block(Duration.ofSeconds(30))).isNotNull();
+		}
+		finally {
+			provider.dispose();
+			server.disposeNow();
+			group.shutdownGracefully();
+		}
+	}
+
+	@Test
+	public void loadBalancedProviderSpreadsInFlightConnections() {
+		DisposableServer server1 = TcpServer.create()
+		                                    .port(0)
+		                                    .bindNow();
+		DisposableServer server2 = TcpServer.create()
+		                                    .port(0)
+		                                    .bindNow();
+		NioEventLoopGroup group = new NioEventLoopGroup(1);
+		InetSocketAddress address1 = new InetSocketAddress("127.0.0.1", server1.port());
+		InetSocketAddress address2 = new InetSocketAddress("127.0.0.1", server2.port());
+		ReplayProcessor<List<InetSocketAddress>> endpoints = ReplayProcessor.cacheLast();
+		ConnectionProvider provider =
+				ConnectionProvider.loadBalanced(ConnectionProvider.builder("loadBalanced")
+				                                                  .build(),
+						endpoints);
+		try {
+			// the client address is replaced by the chosen endpoint
+			Bootstrap bootstrap = new Bootstrap().remoteAddress(new InetSocketAddress("example.com", 80))
+			                                     .channelFactory(NioSocketChannel::new)
+			                                     .group(group);
+
+			// acquires wait for the first endpoints
+			MonoProcessor<Connection> first = MonoProcessor.create();
+			provider.acquire(bootstrap)
+			        .subscribe(first);
+			assertThat(first.isTerminated()).isFalse();
+			endpoints.onNext(Arrays.asList(address1, address2));
+
+			List<PooledConnection> connections = new ArrayList<>();
+			connections.add((PooledConnection) first.block(Duration.ofSeconds(30)));
+			for (int i = 1; i < 10; i++) {
+				connections.add((PooledConnection) provider.acquire(bootstrap)
+				                                           .block(Duration.ofSeconds(30)));
+			}
+			// the least loaded of two endpoints is always chosen
+			assertThat(connections.stream()
+			                      .filter(c -> server1.port() == ((InetSocketAddress) c.channel()
+			                                                                           .remoteAddress()).getPort()))
+					.hasSize(5);
+
+			connections.forEach(c -> c.onStateChange(c, ConnectionObserver.State.DISCONNECTING));
+
+			endpoints.onNext(Collections.singletonList(address2));
+			for (int i = 0; i < 4; i++) {
+				Connection c = provider.acquire(bootstrap)
+				                       .block(Duration.ofSeconds(30));
+				assertThat(c).isNotNull();
+				assertThat(((InetSocketAddress) c.channel()
+				                                 .remoteAddress()).getPort()).isEqualTo(server2.port());
+			}
+		}
+		finally {
+			provider.dispose();
+			server1.disposeNow();
+			server2.disposeNow();
+			group.shutdownGracefully();
+		}
+	}
+
+	static PooledConnection acquireOn(ConnectionProvider provider, Bootstrap bootstrap, EventLoop loop) {
+		PooledConnection c = (PooledConnection) Mono.defer(() -> provider.acquire(bootstrap))
+		                                            .subscribeOn(Schedulers.fromExecutor(loop))
+		                                            .block(Duration.ofSeconds(30));
+		assertThat(c).isNotNull();
+		return c;
+	}
+}
@@ -46,6 +46,10 @@ import javax.net.ssl.SSLException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollMode;
 import io.netty.handler.codec.LineBasedFrameDecoder;
 import io.netty.handler.codec.json.JsonObjectDecoder;
 import io.netty.handler.ssl.SslContext;
@@ -74,6 +78,7 @@ import reactor.netty.NettyOutbound;
 import reactor.netty.SocketUtils;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
 import reactor.util.Logger;
 import reactor.util.Loggers;
 
@@ -846,6 +851,212 @@ public class TcpServerTests {
 		latch.await(30, TimeUnit.SECONDS);
 	}
 
+	@Test
+	public void reusePortBindsSeveralAcceptors() {
+		Assertions.assertThat(TcpServer.create()
+		                               .reusePort(4)
+		                               .configure()
+		                               .config()
+		                               .attrs())
+		          .containsEntry(TcpServerReusePort.ACCEPTORS, 4);
+
+		DisposableServer server =
+				TcpServer.create()
+				         .port(0)
+				         .reusePort(4)
+				         .handle((in, out) -> out.sendString(in.receive()
+				                                               .asString()
+				                                               .take(1)))
+				         .bindNow();
+
+		if (Epoll.isAvailable()) {
+			Assertions.assertThat(server).isInstanceOf(TcpServerBind.DisposableAcceptors.class);
+			Assertions.assertThat(((TcpServerBind.DisposableAcceptors) server).acceptors)
+			          .hasSize(4)
+			          .allSatisfy(acceptor -> Assertions.assertThat(acceptor.port())
+			                                            .isEqualTo(server.port()));
+		}
+
+		List<String> replies =
+				Flux.range(0, 8)
+				    .flatMap(i -> TcpClient.create()
+				                           .port(server.port())
+				                           .connect()
+				                           .flatMap(c -> Mono.from(c.outbound()
+				                                                    .sendString(Mono.just("echo")))
+				                                             .then(c.inbound()
+				                                                    .receive()
+				                                                    .asString()
+				                                                    .next())
+				                                             .doFinally(sig -> c.dispose())))
+				    .collectList()
+				    .block(Duration.ofSeconds(30));
+
+		Assertions.assertThat(replies).hasSize(8)
+		          .containsOnly("echo");
+
+		server.disposeNow();
+		Assertions.assertThat(server.channel().isOpen()).isFalse();
+	}
+
+	@Test
+	public void nativeOptionsAppliedOnEpollAndIgnoredOtherwise() {
+		Assertions.assertThat(TcpServer.create()
+		                               .nativeOptions(spec -> spec.tcpQuickAck(true))
+		                               .configure()
+		                               .config()
+		                               .attrs())
+		          .containsKey(NativeOptions.NATIVE_OPTIONS);
+
+		AtomicReference<Channel> child = new AtomicReference<>();
+		DisposableServer server =
+				TcpServer.create()
+				         .port(0)
+				         .nativeOptions(spec -> spec.tcpFastOpen(16)
+				                                    .tcpQuickAck(true)
+				                                    .edgeTriggered(false))
+				         .doOnConnection(c -> child.set(c.channel()))
+				         .handle((in, out) -> out.sendString(in.receive()
+				                                               .asString()
+				                                               .take(1)))
+				         .bindNow();
+
+		Connection client =
+				TcpClient.create()
+				         .port(server.port())
+				         .nativeOptions(spec -> spec.tcpFastOpen(1)
+				                                    .tcpQuickAck(true))
+				         .connectNow();
+
+		String reply = Mono.from(client.outbound()
+		                               .sendString(Mono.just("echo")))
+		                   .then(client.inbound()
+		                               .receive()
+		                               .asString()
+		                               .next())
+		                   .block(Duration.ofSeconds(30));
+		Assertions.assertThat(reply).isEqualTo("echo");
+
+		if (Epoll.isAvailable()) {
+			Assertions.assertThat(child.get().config().getOption(EpollChannelOption.TCP_QUICKACK)).isTrue();
+			Assertions.assertThat(child.get().config().getOption(EpollChannelOption.EPOLL_MODE))
+			          .isEqualTo(EpollMode.LEVEL_TRIGGERED);
+			Assertions.assertThat(client.channel().config().getOption(EpollChannelOption.TCP_FASTOPEN_CONNECT)).isTrue();
+		}
+
+		client.disposeNow();
+		server.disposeNow();
+	}
+
+	@Test
+	public void maxConnectionsPausesAcceptsUntilAConnectionCloses() {
+		DisposableServer server =
+				TcpServer.create()
+				         .port(0)
+				         .maxConnections(1)
+				         .handle((in, out) -> in.receive()
+				                                .asString()
+				                                .concatMap(s -> out.sendString(Mono.just(s))))
+				         .bindNow();
+
+		Connection first = TcpClient.newConnection()
+		                            .port(server.port())
+		                            .connectNow();
+		Assertions.assertThat(echo(first).block(Duration.ofSeconds(30))).isEqualTo("echo");
+
+		// the second connection waits in the accept backlog
+		Connection second = TcpClient.newConnection()
+		                             .port(server.port())
+		                             .connectNow();
+		Mono<String> reply = echo(second).cache();
+		reply.subscribe();
+		StepVerifier.create(reply)
+		            .expectSubscription()
+		            .expectNoEvent(Duration.ofMillis(500))
+		            .thenCancel()
+		            .verify(Duration.ofSeconds(30));
+
+		first.disposeNow();
+		Assertions.assertThat(reply.block(Duration.ofSeconds(30))).isEqualTo("echo");
+
+		second.disposeNow();
+		server.disposeNow();
+	}
+
+	@Test
+	public void acceptRateDelaysConnectionsBeyondTheBurst() {
+		Assertions.assertThat(TcpServer.create()
+		                               .acceptRate(10, 2)
+		                               .configure()
+		                               .config()
+		                               .attrs())
+		          .containsEntry(TcpServerAcceptLimit.ACCEPT_RATE, 10)
+		          .containsEntry(TcpServerAcceptLimit.ACCEPT_BURST, 2);
+
+		DisposableServer server =
+				TcpServer.create()
+				         .port(0)
+				         .acceptRate(1, 1)
+				         .handle((in, out) -> in.receive()
+				                                .asString()
+				                                .concatMap(s -> out.sendString(Mono.just(s))))
+				         .bindNow();
+
+		Connection first = TcpClient.newConnection()
+		                            .port(server.port())
+		                            .connectNow();
+		Assertions.assertThat(echo(first).block(Duration.ofSeconds(30))).isEqualTo("echo");
+
+		long start = System.nanoTime();
+		Connection second = TcpClient.newConnection()
+		                             .port(server.port())
+		                             .connectNow();
+		Assertions.assertThat(echo(second).block(Duration.ofSeconds(30))).isEqualTo("echo");
+		Assertions.assertThat(Duration.ofNanos(System.nanoTime() - start))
+		          .isGreaterThan(Duration.ofMillis(200));
+
+		first.disposeNow();
+		second.disposeNow();
+		server.disposeNow();
+	}
+
+	@Test
+	public void closedConnectionDoesNotResumeAcceptsBeforeAPermitIsAvailable() {
+		DisposableServer server =
+				TcpServer.create()
+				         .port(0)
+				         .maxConnections(1)
+				         .acceptRate(1, 1)
+				         .handle((in, out) -> in.receive()
+				                                .asString()
+				                                .concatMap(s -> out.sendString(Mono.just(s))))
+				         .bindNow();
+
+		Connection first = TcpClient.newConnection()
+		                            .port(server.port())
+		                            .connectNow();
+		Assertions.assertThat(echo(first).block(Duration.ofSeconds(30))).isEqualTo("echo");
+		first.disposeNow();
+
+		// the bucket is still empty, the second connection must wait instead of being rejected
+		Connection second = TcpClient.newConnection()
+		                             .port(server.port())
+		                             .connectNow();
+		Assertions.assertThat(echo(second).block(Duration.ofSeconds(30))).isEqualTo("echo");
+
+		second.disposeNow();
+		server.disposeNow();
+	}
+
+	private static Mono<String> echo(Connection c) {
+		return Mono.from(c.outbound()
+		                  .sendString(Mono.just("echo")))
+		           .then(c.inbound()
+		                  .receive()
+		                  .asString()
+		                  .next());
+	}
+
 	private static class SimpleClient extends Thread {
 		private final int port;
 		private final CountDownLatch latch;